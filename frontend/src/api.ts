@@ -1,4 +1,4 @@
-const API_BASE_URL = (import.meta as any).env?.VITE_API_BASE_URL ?? 'http://localhost:8090'
+export const API_BASE_URL = (import.meta as any).env?.VITE_API_BASE_URL ?? 'http://localhost:8090'
 
 export type ApiError = { status: number; error: string }
 
@@ -8,7 +8,10 @@ function getToken(): string | null {
 
 export async function apiFetch<T>(path: string, init?: RequestInit): Promise<T> {
   const headers = new Headers(init?.headers)
-  headers.set('Content-Type', 'application/json')
+  // Let the browser set the multipart boundary for uploads.
+  if (!(init?.body instanceof FormData)) {
+    headers.set('Content-Type', 'application/json')
+  }
 
   const token = getToken()
   if (token) {
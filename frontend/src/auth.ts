@@ -1,10 +1,27 @@
-export type UserView = { id: string; name: string; email: string; rootAdmin?: boolean; emailVerified?: boolean }
+export type UserView = {
+  id: string
+  name: string
+  email: string
+  rootAdmin?: boolean
+  emailVerified?: boolean
+  avatarUrl?: string | null
+}
+
+export type AuthResponse = {
+  accessToken: string
+  user: UserView
+}
 
 export function setSession(accessToken: string, user: UserView) {
   localStorage.setItem('accessToken', accessToken)
   localStorage.setItem('user', JSON.stringify(user))
 }
 
+// Profile changes come back with a reissued token carrying the new claims.
+export function updateSessionToken(accessToken: string) {
+  localStorage.setItem('accessToken', accessToken)
+}
+
 export function clearSession() {
   localStorage.removeItem('accessToken')
   localStorage.removeItem('user')
@@ -1,17 +1,18 @@
 import { useEffect, useState } from 'react'
 import { Link, useNavigate } from 'react-router-dom'
 import { clearSession, getUser } from '../auth'
-import { getProfilePhoto } from '../profilePhoto'
+import { avatarSrc } from '../profilePhoto'
+import QuickSwitcher from './QuickSwitcher'
 
 export default function NavBar() {
   const nav = useNavigate()
   const user = getUser()
   const [showPostLoginSplash, setShowPostLoginSplash] = useState(false)
-  const [photo, setPhoto] = useState<string | null>(() => (user?.id ? getProfilePhoto(user.id) : null))
+  const [photo, setPhoto] = useState<string | null>(() => avatarSrc(user?.avatarUrl, 64))
 
   useEffect(() => {
     if (!user?.id) return
-    const onUpdate = () => setPhoto(getProfilePhoto(user.id))
+    const onUpdate = () => setPhoto(avatarSrc(getUser()?.avatarUrl, 64))
     globalThis.addEventListener('profilePhotoUpdated', onUpdate)
     globalThis.addEventListener('storage', onUpdate)
     return () => {
@@ -86,6 +87,7 @@ export default function NavBar() {
           </div>
 
           <div className="flex flex-wrap items-center justify-end gap-2 text-sm">
+            <QuickSwitcher />
             <Link to="/notifications" className="btn btn-ghost px-2 py-2 sm:px-3">
               Notifications
             </Link>
@@ -0,0 +1,78 @@
+import { useEffect, useState } from 'react'
+import { useNavigate } from 'react-router-dom'
+import { apiFetch } from '../api'
+
+type Hit = { kind: 'ORG' | 'PROJECT'; id: string; orgId: string; name: string }
+
+export default function QuickSwitcher() {
+  const nav = useNavigate()
+  const [q, setQ] = useState('')
+  const [hits, setHits] = useState<Hit[]>([])
+  const [open, setOpen] = useState(false)
+
+  useEffect(() => {
+    const term = q.trim()
+    if (!term) {
+      setHits([])
+      return
+    }
+    let cancelled = false
+    const t = globalThis.setTimeout(async () => {
+      try {
+        const data = await apiFetch<Hit[]>(`/search/quick?q=${encodeURIComponent(term)}&limit=8`)
+        if (!cancelled) setHits(data)
+      } catch {
+        if (!cancelled) setHits([])
+      }
+    }, 150)
+    return () => {
+      cancelled = true
+      globalThis.clearTimeout(t)
+    }
+  }, [q])
+
+  function go(hit: Hit) {
+    setOpen(false)
+    setQ('')
+    if (hit.kind === 'PROJECT') {
+      nav(`/projects/${hit.id}`)
+    } else {
+      nav(`/dashboard?org=${hit.id}`)
+    }
+  }
+
+  return (
+    <div className="relative hidden md:block">
+      <input
+        className="input w-56"
+        placeholder="Jump to team or project…"
+        value={q}
+        onChange={(e) => {
+          setQ(e.target.value)
+          setOpen(true)
+        }}
+        onFocus={() => setOpen(true)}
+        onBlur={() => globalThis.setTimeout(() => setOpen(false), 150)}
+        onKeyDown={(e) => {
+          if (e.key === 'Enter' && hits.length > 0) go(hits[0])
+          if (e.key === 'Escape') setOpen(false)
+        }}
+      />
+      {open && hits.length > 0 ? (
+        <div className="card absolute right-0 z-50 mt-2 w-72 divide-y divide-slate-800/60 overflow-hidden p-0">
+          {hits.map((h) => (
+            <button
+              key={`${h.kind}:${h.id}`}
+              className="flex w-full items-center justify-between gap-3 px-3 py-2 text-left text-sm hover:bg-slate-800/40"
+              onMouseDown={(e) => e.preventDefault()}
+              onClick={() => go(h)}
+            >
+              <span className="truncate">{h.name}</span>
+              <span className="badge">{h.kind === 'ORG' ? 'Team' : 'Project'}</span>
+            </button>
+          ))}
+        </div>
+      ) : null}
+    </div>
+  )
+}
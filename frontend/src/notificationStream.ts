@@ -0,0 +1,63 @@
+import { API_BASE_URL } from './api'
+
+// EventSource can't send the Authorization header, so the SSE stream is read with fetch.
+export function subscribeNotifications<T>(onNotification: (n: T) => void): () => void {
+  let stopped = false
+  let lastEventId: string | null = null
+  let controller: AbortController | null = null
+  let retryMs = 1000
+
+  async function connect() {
+    while (!stopped) {
+      controller = new AbortController()
+      try {
+        const headers = new Headers({ Accept: 'text/event-stream' })
+        const token = localStorage.getItem('accessToken')
+        if (token) headers.set('Authorization', `Bearer ${token}`)
+        if (lastEventId) headers.set('Last-Event-ID', lastEventId)
+
+        const res = await fetch(`${API_BASE_URL}/notifications/stream`, { headers, signal: controller.signal })
+        if (!res.ok || !res.body) throw new Error(`stream ${res.status}`)
+        retryMs = 1000
+
+        const reader = res.body.pipeThrough(new TextDecoderStream()).getReader()
+        let buffer = ''
+        for (;;) {
+          const { value, done } = await reader.read()
+          if (done) break
+          buffer += value
+          let sep: number
+          while ((sep = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, sep)
+            buffer = buffer.slice(sep + 2)
+            let id: string | null = null
+            let data = ''
+            for (const line of block.split('\n')) {
+              if (line.startsWith('id:')) id = line.slice(3).trim()
+              else if (line.startsWith('data:')) data += line.slice(5)
+            }
+            if (id) lastEventId = id
+            if (data) {
+              try {
+                onNotification(JSON.parse(data) as T)
+              } catch {
+                // ignore malformed event
+              }
+            }
+          }
+        }
+      } catch {
+        // fall through to reconnect
+      }
+      if (stopped) return
+      await new Promise((r) => setTimeout(r, retryMs))
+      retryMs = Math.min(retryMs * 2, 30000)
+    }
+  }
+
+  connect()
+  return () => {
+    stopped = true
+    controller?.abort()
+  }
+}
@@ -0,0 +1,21 @@
+import { apiFetch } from './api'
+
+export type OrgMember = { orgId: string; userId: string; role: string }
+export type MemberPage = { items: OrgMember[]; nextCursor: string | null }
+
+export function fetchMemberPage(orgId: string, after?: string | null, limit = 100): Promise<MemberPage> {
+  const params = new URLSearchParams({ limit: String(limit) })
+  if (after) params.set('after', after)
+  return apiFetch<MemberPage>(`/orgs/${orgId}/members?${params.toString()}`)
+}
+
+export async function fetchAllMembers(orgId: string): Promise<OrgMember[]> {
+  const all: OrgMember[] = []
+  let cursor: string | null = null
+  do {
+    const page: MemberPage = await fetchMemberPage(orgId, cursor, 1000)
+    all.push(...page.items)
+    cursor = page.nextCursor
+  } while (cursor)
+  return all
+}
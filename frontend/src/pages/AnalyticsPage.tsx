@@ -2,10 +2,10 @@ import { useEffect, useMemo, useState } from 'react'
 import { Navigate } from 'react-router-dom'
 import NavBar from '../components/NavBar'
 import { apiFetch } from '../api'
+import { fetchAllMembers } from '../orgMembers'
 import { getUser } from '../auth'
 
 type Org = { id: string; name: string }
-type Member = { orgId: string; userId: string; role: string }
 type Project = { id: string; orgId: string; name: string; description?: string | null; repoUrl?: string | null }
 type Task = { id: string; projectId: string; title: string; status: 'TODO' | 'IN_PROGRESS' | 'DONE'; deadline?: string | null }
 
@@ -50,12 +50,12 @@ export default function AnalyticsPage() {
       setError(null)
 
       try {
-        const orgs = await apiFetch<Org[]>('/orgs')
+        const orgs = await apiFetch<Org[]>('/orgs?size=500')
         if (cancelled) return
 
         setOrgCount(orgs.length)
 
-        const membersByOrg = await Promise.all(orgs.map((o) => apiFetch<Member[]>(`/orgs/${o.id}/members`)))
+        const membersByOrg = await Promise.all(orgs.map((o) => fetchAllMembers(o.id)))
         if (cancelled) return
 
         const projectsByOrg = await Promise.all(orgs.map((o) => apiFetch<Project[]>(`/orgs/${o.id}/projects`)))
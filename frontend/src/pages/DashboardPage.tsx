@@ -1,13 +1,30 @@
 import { useEffect, useMemo, useState } from 'react'
-import { Link } from 'react-router-dom'
+import { Link, useSearchParams } from 'react-router-dom'
 import NavBar from '../components/NavBar'
 import { apiFetch } from '../api'
 import { getUser } from '../auth'
+import { fetchMemberPage } from '../orgMembers'
+import { fetchUsersByIds } from '../users'
 
 type Org = { id: string; name: string }
 type Project = { id: string; orgId: string; name: string; description?: string | null; repoUrl?: string | null }
 type Member = { orgId: string; userId: string; role: string }
 type UserLookup = { id: string; name: string; email: string }
+type BulkAddResult = {
+  added: number
+  existing: number
+  failed: number
+  results: { input: string; userId: string | null; role: string | null; status: string; error: string | null }[]
+}
+type TaskStats = { projectId: string; total: number; todo: number; inProgress: number; done: number }
+type OrgOverview = {
+  org: Org
+  myRole: string | null
+  memberCount: number
+  roleCounts: Record<string, number>
+  projects: { project: Project; taskStats: TaskStats | null }[]
+  taskStatsComplete: boolean
+}
 type Task = { id: string; projectId: string; title: string; status: 'TODO' | 'IN_PROGRESS' | 'DONE' }
 
 function normalizeUrl(raw: string): string {
@@ -17,10 +34,6 @@ function normalizeUrl(raw: string): string {
   return `https://${v}`
 }
 
-function isUuid(value: string): boolean {
-  return /^[0-9a-f]{8}-[0-9a-f]{4}-[1-5][0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}$/i.test(value)
-}
-
 function shortId(value: string): string {
   const v = value.trim()
   if (v.length <= 12) return v
@@ -37,8 +50,11 @@ export default function DashboardPage() {
   const [orgs, setOrgs] = useState<Org[]>([])
   const [projects, setProjects] = useState<Project[]>([])
   const [members, setMembers] = useState<Member[]>([])
+  const [membersCursor, setMembersCursor] = useState<string | null>(null)
+  const [overview, setOverview] = useState<OrgOverview | null>(null)
   const [memberUsers, setMemberUsers] = useState<Record<string, UserLookup>>({})
-  const [selectedOrgId, setSelectedOrgId] = useState<string>('')
+  const [searchParams] = useSearchParams()
+  const [selectedOrgId, setSelectedOrgId] = useState<string>(() => searchParams.get('org') ?? '')
 
   const [error, setError] = useState<string | null>(null)
 
@@ -49,14 +65,11 @@ export default function DashboardPage() {
 
   const [newMemberUserId, setNewMemberUserId] = useState('')
   const [newMemberRole, setNewMemberRole] = useState<'MEMBER' | 'ADMIN'>('MEMBER')
+  const [memberSuggestions, setMemberSuggestions] = useState<UserLookup[]>([])
 
   const selectedOrg = useMemo(() => orgs.find((o) => o.id === selectedOrgId) ?? null, [orgs, selectedOrgId])
 
-  const isCurrentUserAdmin = useMemo(() => {
-    if (!currentUser?.id) return false
-    const self = members.find((m) => m.userId === currentUser.id)
-    return !!self && self.role.toUpperCase() === 'ADMIN'
-  }, [currentUser?.id, members])
+  const isCurrentUserAdmin = (overview?.myRole ?? '').toUpperCase() === 'ADMIN'
 
   const [teamStatusCounts, setTeamStatusCounts] = useState<{ todo: number; inProgress: number; done: number } | null>(null)
   const [myStatusCounts, setMyStatusCounts] = useState<{ todo: number; inProgress: number; done: number } | null>(null)
@@ -83,19 +96,13 @@ export default function DashboardPage() {
     const missing = list.map((m) => m.userId).filter((id) => !memberUsers[id])
     if (missing.length === 0) return
 
-    const results = await Promise.allSettled(
-      missing.map(async (id) => {
-        const u = await apiFetch<UserLookup>(`/auth/users/${id}`)
-        return u
-      })
-    )
+    const found = await fetchUsersByIds(missing).catch(() => [])
+    if (found.length === 0) return
 
     setMemberUsers((prev) => {
       const next = { ...prev }
-      results.forEach((r) => {
-        if (r.status === 'fulfilled') {
-          next[r.value.id] = r.value
-        }
+      found.forEach((u) => {
+        next[u.id] = u
       })
       return next
     })
@@ -104,7 +111,7 @@ export default function DashboardPage() {
   async function refreshOrgs() {
     try {
       const data = await apiFetch<Org[]>('/orgs')
-      setOrgs(data)
+      setOrgs((prev) => [...data, ...prev.filter((o) => !data.some((d) => d.id === o.id))])
       if (!selectedOrgId && data.length > 0) {
         setSelectedOrgId(data[0].id)
       }
@@ -114,48 +121,66 @@ export default function DashboardPage() {
     }
   }
 
-  async function refreshProjects(orgId: string) {
+  async function refreshOverview(orgId: string) {
     try {
-      const data = await apiFetch<Project[]>(`/orgs/${orgId}/projects`)
-      setProjects(data)
+      const data = await apiFetch<OrgOverview>(`/orgs/${orgId}/overview`)
+      setOverview(data)
+      // Orgs opened from the quick switcher may be beyond the first page of /orgs.
+      setOrgs((prev) => (prev.some((o) => o.id === data.org.id) ? prev : [...prev, data.org]))
+      setProjects(data.projects.map((p) => p.project))
+      if (data.taskStatsComplete) {
+        const stats = data.projects.map((p) => p.taskStats).filter((t): t is TaskStats => !!t)
+        setTeamStatusCounts({
+          todo: stats.reduce((n, t) => n + t.todo, 0),
+          inProgress: stats.reduce((n, t) => n + t.inProgress, 0),
+          done: stats.reduce((n, t) => n + t.done, 0),
+        })
+      } else {
+        setTeamStatusCounts(null)
+      }
     } catch (e: any) {
       setError(e?.error ?? 'Failed to load projects')
+      setOverview(null)
       setProjects([])
+      setTeamStatusCounts(null)
     }
   }
 
   async function refreshMembers(orgId: string) {
     try {
-      const data = await apiFetch<Member[]>(`/orgs/${orgId}/members`)
-      setMembers(data)
-      await hydrateUsersForMembers(data)
+      const page = await fetchMemberPage(orgId)
+      setMembers(page.items)
+      setMembersCursor(page.nextCursor)
+      await hydrateUsersForMembers(page.items)
     } catch (e: any) {
       setError(e?.error ?? 'Failed to load members')
       setMembers([])
+      setMembersCursor(null)
     }
   }
 
+  async function loadMoreMembers(orgId: string) {
+    if (!membersCursor) return
+    try {
+      const page = await fetchMemberPage(orgId, membersCursor)
+      setMembers((prev) => [...prev, ...page.items])
+      setMembersCursor(page.nextCursor)
+      await hydrateUsersForMembers(page.items)
+    } catch (e: any) {
+      setError(e?.error ?? 'Failed to load members')
+    }
+  }
+
+  // Team-wide counts for admins come with the org overview.
   async function refreshAnalytics(orgId: string, orgProjects: Project[], admin: boolean) {
-    setTeamStatusCounts(null)
     setMyStatusCounts(null)
     if (!orgId) return
     if (orgProjects.length === 0) return
+    if (admin) return
 
     try {
       const projectIds = new Set(orgProjects.map((p) => p.id))
 
-      if (admin) {
-        const taskLists = await Promise.all(orgProjects.map((p) => apiFetch<Task[]>(`/projects/${p.id}/tasks`)))
-        const all = taskLists.flat()
-        const next = {
-          todo: all.filter((t) => t.status === 'TODO').length,
-          inProgress: all.filter((t) => t.status === 'IN_PROGRESS').length,
-          done: all.filter((t) => t.status === 'DONE').length,
-        }
-        setTeamStatusCounts(next)
-        return
-      }
-
       if (!currentUser?.id) return
       const mine = await apiFetch<Task[]>(`/tasks?assignedToUserId=${encodeURIComponent(currentUser.id)}`)
       const inTeam = mine.filter((t) => projectIds.has(t.projectId))
@@ -170,18 +195,48 @@ export default function DashboardPage() {
     }
   }
 
+  // Autocomplete the entry being typed (the text after the last separator).
+  useEffect(() => {
+    const term = newMemberUserId.split(/[\s,;]+/).pop()?.trim() ?? ''
+    if (term.length < 2) {
+      setMemberSuggestions([])
+      return
+    }
+    let cancelled = false
+    const t = globalThis.setTimeout(async () => {
+      try {
+        const data = await apiFetch<UserLookup[]>(`/auth/users/search?q=${encodeURIComponent(term)}&limit=8`)
+        if (!cancelled) setMemberSuggestions(data)
+      } catch {
+        if (!cancelled) setMemberSuggestions([])
+      }
+    }, 150)
+    return () => {
+      cancelled = true
+      globalThis.clearTimeout(t)
+    }
+  }, [newMemberUserId])
+
   useEffect(() => {
     refreshOrgs()
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, [])
 
+  useEffect(() => {
+    const org = searchParams.get('org')
+    if (org) setSelectedOrgId(org)
+  }, [searchParams])
+
   useEffect(() => {
     if (selectedOrgId) {
-      refreshProjects(selectedOrgId)
+      refreshOverview(selectedOrgId)
       refreshMembers(selectedOrgId)
     } else {
+      setOverview(null)
       setProjects([])
+      setTeamStatusCounts(null)
       setMembers([])
+      setMembersCursor(null)
     }
   }, [selectedOrgId])
 
@@ -312,17 +367,25 @@ export default function DashboardPage() {
                   <div className="text-sm font-medium">Members</div>
                   <div className="mt-1 text-xs text-slate-400">Admin can add members by email (recommended).</div>
                 </div>
-                <span className="badge">{members.length} total</span>
+                <span className="badge">{overview?.memberCount ?? members.length} total</span>
               </div>
 
               {isCurrentUserAdmin ? (
                 <div className="mt-3 grid gap-2">
                   <input
                     className="input"
-                    placeholder="User email or UUID"
+                    placeholder="User emails or UUIDs (comma separated)"
+                    list="member-suggestions"
                     value={newMemberUserId}
                     onChange={(e) => setNewMemberUserId(e.target.value)}
                   />
+                  <datalist id="member-suggestions">
+                    {memberSuggestions.map((u) => (
+                      <option key={u.id} value={newMemberUserId.replace(/[^\s,;]*$/, '') + u.email}>
+                        {u.name}
+                      </option>
+                    ))}
+                  </datalist>
                   <select
                     className="select"
                     value={newMemberRole}
@@ -335,31 +398,25 @@ export default function DashboardPage() {
                     className="btn btn-secondary"
                     onClick={async () => {
                       setError(null)
-                      const raw = newMemberUserId.trim()
-                      if (!raw) return
+                      const entries = newMemberUserId.split(/[\s,;]+/).map((v) => v.trim()).filter(Boolean)
+                      if (entries.length === 0) return
                       try {
-                        let userIdToAdd = raw
-                        if (!isUuid(raw)) {
-                          if (!raw.includes('@')) {
-                            setError('Enter a valid user UUID or an email address')
-                            return
-                          }
-                          const u = await apiFetch<UserLookup>(`/auth/users/lookup?email=${encodeURIComponent(raw)}`)
-                          userIdToAdd = u.id
-                        }
-
-                        await apiFetch<Member>(`/orgs/${selectedOrg.id}/members`, {
+                        const res = await apiFetch<BulkAddResult>(`/orgs/${selectedOrg.id}/members:bulk`, {
                           method: 'POST',
-                          body: JSON.stringify({ userId: userIdToAdd, role: newMemberRole })
+                          body: JSON.stringify({ members: entries, role: newMemberRole })
                         })
-                        setNewMemberUserId('')
-                        await refreshMembers(selectedOrg.id)
+                        const failed = res.results.filter((r) => r.status === 'NOT_FOUND' || r.status === 'INVALID')
+                        setNewMemberUserId(failed.map((r) => r.input).join(', '))
+                        if (failed.length > 0) {
+                          setError(`Could not add ${failed.length} of ${entries.length}: ${failed.map((r) => r.input).join(', ')}`)
+                        }
+                        await Promise.all([refreshMembers(selectedOrg.id), refreshOverview(selectedOrg.id)])
                       } catch (e: any) {
                         setError(e?.error ?? 'Failed to add member')
                       }
                     }}
                   >
-                    Add member
+                    Add members
                   </button>
                 </div>
               ) : (
@@ -393,7 +450,7 @@ export default function DashboardPage() {
                               if (!ok) return
                               try {
                                 await apiFetch<void>(`/orgs/${selectedOrg.id}/members/${m.userId}`, { method: 'DELETE' })
-                                await refreshMembers(selectedOrg.id)
+                                await Promise.all([refreshMembers(selectedOrg.id), refreshOverview(selectedOrg.id)])
                               } catch (e: any) {
                                 setError(e?.error ?? 'Failed to remove member')
                               }
@@ -407,6 +464,11 @@ export default function DashboardPage() {
                   ))
                 )}
               </div>
+              {selectedOrg && membersCursor ? (
+                <button className="btn btn-ghost mt-3 w-full" onClick={() => loadMoreMembers(selectedOrg.id)}>
+                  Load more members
+                </button>
+              ) : null}
             </>
           ) : null}
         </div>
@@ -456,7 +518,7 @@ export default function DashboardPage() {
                         setNewProjectName('')
                         setNewProjectDesc('')
                         setNewProjectRepoUrl('')
-                        await refreshProjects(selectedOrg.id)
+                        await refreshOverview(selectedOrg.id)
                       } catch (e: any) {
                         setError(e?.error ?? 'Failed to create project')
                       }
@@ -493,9 +555,8 @@ export default function DashboardPage() {
                               const ok = window.confirm('Delete this project? This will also delete its tasks.')
                               if (!ok) return
                               try {
-                                await apiFetch<void>(`/projects/${p.id}/tasks`, { method: 'DELETE' })
                                 await apiFetch<void>(`/projects/${p.id}`, { method: 'DELETE' })
-                                await refreshProjects(selectedOrg.id)
+                                await refreshOverview(selectedOrg.id)
                               } catch (e: any) {
                                 setError(e?.error ?? 'Failed to delete project')
                               }
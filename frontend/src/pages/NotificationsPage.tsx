@@ -1,6 +1,7 @@
 import { useEffect, useState } from 'react'
 import NavBar from '../components/NavBar'
 import { apiFetch } from '../api'
+import { subscribeNotifications } from '../notificationStream'
 
 type Notification = {
   id: string
@@ -11,6 +12,8 @@ type Notification = {
   refId?: string | null
   read: boolean
   createdAt: string
+  occurrences: number
+  lastOccurredAt: string
 }
 
 export default function NotificationsPage() {
@@ -25,6 +28,12 @@ export default function NotificationsPage() {
     refresh()
   }, [])
 
+  useEffect(() => {
+    return subscribeNotifications<Notification>((n) => {
+      setRows((prev) => [n, ...prev.filter((r) => r.id !== n.id)])
+    })
+  }, [])
+
   return (
     <div className="app-shell">
       <NavBar />
@@ -43,6 +52,18 @@ export default function NotificationsPage() {
             <button className="btn btn-secondary" onClick={refresh}>
               Refresh
             </button>
+            {rows.some((r) => !r.read) ? (
+              <button
+                className="btn btn-primary"
+                onClick={async () => {
+                  const newest = rows.length > 0 ? `?upTo=${encodeURIComponent(rows[0].lastOccurredAt)}` : ''
+                  await apiFetch(`/notifications/read-all${newest}`, { method: 'POST' })
+                  await refresh()
+                }}
+              >
+                Mark all read
+              </button>
+            ) : null}
           </div>
         </div>
 
@@ -55,8 +76,11 @@ export default function NotificationsPage() {
                 <div className="flex items-center justify-between gap-3">
                   <div>
                     <div className="text-xs text-slate-500">{n.type}</div>
-                    <div className="mt-1 text-sm text-slate-100">{n.message}</div>
-                    <div className="mt-1 text-xs text-slate-500">{n.createdAt}</div>
+                    <div className="mt-1 text-sm text-slate-100">
+                      {n.message}
+                      {n.occurrences > 1 ? <span className="ml-2 text-xs text-slate-400">×{n.occurrences}</span> : null}
+                    </div>
+                    <div className="mt-1 text-xs text-slate-500">{n.lastOccurredAt}</div>
                   </div>
                   <div className="flex items-center gap-2">
                     <span className={`badge ${n.read ? '' : 'border-indigo-500/30 bg-indigo-500/10 text-indigo-200'}`}>{n.read ? 'Read' : 'Unread'}</span>
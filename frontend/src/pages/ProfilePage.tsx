@@ -1,23 +1,25 @@
 import { useEffect, useState } from 'react'
 import NavBar from '../components/NavBar'
 import { apiFetch } from '../api'
-import { fileToResizedDataUrl, getProfilePhoto, initialsFromName, notifyProfilePhotoUpdated, removeProfilePhoto, setProfilePhoto } from '../profilePhoto'
-
-type User = { id: string; name: string; email: string; rootAdmin?: boolean }
+import { setSession } from '../auth'
+import type { AuthResponse, UserView } from '../auth'
+import { avatarSrc, initialsFromName, notifyProfilePhotoUpdated, removeProfilePhoto, uploadProfilePhoto } from '../profilePhoto'
 
 export default function ProfilePage() {
-  const [me, setMe] = useState<User | null>(null)
-  const [photo, setPhoto] = useState<string | null>(null)
+  const [me, setMe] = useState<UserView | null>(null)
   const [photoError, setPhotoError] = useState<string | null>(null)
 
   useEffect(() => {
-    apiFetch<User>('/auth/me').then(setMe).catch(() => setMe(null))
+    apiFetch<UserView>('/auth/me').then(setMe).catch(() => setMe(null))
   }, [])
 
-  useEffect(() => {
-    if (!me) return
-    setPhoto(getProfilePhoto(me.id))
-  }, [me])
+  function applySession(res: AuthResponse) {
+    setMe(res.user)
+    setSession(res.accessToken, res.user)
+    notifyProfilePhotoUpdated()
+  }
+
+  const photo = avatarSrc(me?.avatarUrl, 256)
 
   return (
     <div className="app-shell">
@@ -65,12 +67,9 @@ export default function ProfilePage() {
                             if (!f) return
                             setPhotoError(null)
                             try {
-                              const dataUrl = await fileToResizedDataUrl(f, 256)
-                              setProfilePhoto(me.id, dataUrl)
-                              setPhoto(dataUrl)
-                              notifyProfilePhotoUpdated()
-                            } catch {
-                              setPhotoError('Could not load that image.')
+                              applySession(await uploadProfilePhoto(f))
+                            } catch (err: any) {
+                              setPhotoError(err?.error ?? 'Could not upload that image.')
                             }
                           }}
                         />
@@ -80,12 +79,12 @@ export default function ProfilePage() {
                         <button
                           type="button"
                           className="btn btn-ghost"
-                          onClick={() => {
+                          onClick={async () => {
+                            setPhotoError(null)
                             try {
-                              removeProfilePhoto(me.id)
-                            } finally {
-                              setPhoto(null)
-                              notifyProfilePhotoUpdated()
+                              applySession(await removeProfilePhoto())
+                            } catch (err: any) {
+                              setPhotoError(err?.error ?? 'Could not remove the photo.')
                             }
                           }}
                         >
@@ -95,7 +94,7 @@ export default function ProfilePage() {
                     </div>
                     {photoError && <div className="mt-2 text-sm" style={{ color: 'var(--muted)' }}>{photoError}</div>}
                     <div className="mt-2 text-xs" style={{ color: 'var(--muted)' }}>
-                      Saved on this device for your account.
+                      Visible to everyone you work with.
                     </div>
                   </div>
                 </div>
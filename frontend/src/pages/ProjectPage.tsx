@@ -2,6 +2,8 @@ import { useEffect, useMemo, useState } from 'react'
 import { Link, useParams } from 'react-router-dom'
 import NavBar from '../components/NavBar'
 import { apiFetch } from '../api'
+import { fetchAllMembers } from '../orgMembers'
+import { fetchUsersByIds } from '../users'
 
 type Project = { id: string; orgId: string; name: string; description?: string | null; repoUrl?: string | null }
 
@@ -166,7 +168,7 @@ export default function ProjectPage() {
     setProject(p)
     const t = await apiFetch<Task[]>(`/projects/${pid}/tasks`)
     setTasks(t)
-    const m = await apiFetch<OrgMember[]>(`/orgs/${p.orgId}/members`)
+    const m = await fetchAllMembers(p.orgId)
     setMembers(m)
     await hydrateUsersForMembers(m)
     if (!selectedTaskId && t.length > 0) {
@@ -178,19 +180,13 @@ export default function ProjectPage() {
     const missing = list.map((m) => m.userId).filter((id) => !memberUsers[id])
     if (missing.length === 0) return
 
-    const results = await Promise.allSettled(
-      missing.map(async (id) => {
-        const u = await apiFetch<UserView>(`/auth/users/${id}`)
-        return u
-      })
-    )
+    const found = await fetchUsersByIds(missing).catch(() => [])
+    if (found.length === 0) return
 
     setMemberUsers((prev) => {
       const next = { ...prev }
-      results.forEach((r) => {
-        if (r.status === 'fulfilled') {
-          next[r.value.id] = r.value
-        }
+      found.forEach((u) => {
+        next[u.id] = u
       })
       return next
     })
@@ -1,7 +1,7 @@
 import { useMemo, useState } from 'react'
 import { Link, useNavigate } from 'react-router-dom'
 import { apiFetch, ApiError } from '../api'
-import { setSession } from '../auth'
+import { setSession, updateSessionToken } from '../auth'
 
 type AuthResponse = {
   accessToken: string
@@ -169,7 +169,8 @@ export default function RegisterPage() {
                     return
                   }
 
-                  // Update local user session with verified flag.
+                  // Update local session: the reissued token carries the verified flag too.
+                  if (res.accessToken) updateSessionToken(res.accessToken)
                   const rawUser = localStorage.getItem('user')
                   if (rawUser) {
                     try {
@@ -1,61 +1,22 @@
-const PREFIX = 'profilePhoto:'
+import { API_BASE_URL, apiFetch } from './api'
+import type { AuthResponse } from './auth'
 
-export function getProfilePhoto(userId: string): string | null {
-  try {
-    return localStorage.getItem(PREFIX + userId)
-  } catch {
-    return null
-  }
-}
-
-export function setProfilePhoto(userId: string, dataUrl: string) {
-  localStorage.setItem(PREFIX + userId, dataUrl)
-}
-
-export function removeProfilePhoto(userId: string) {
-  localStorage.removeItem(PREFIX + userId)
-}
+export type AvatarSize = 64 | 128 | 256
 
-export async function fileToResizedDataUrl(file: File, maxSize = 256): Promise<string> {
-  const dataUrl = await fileToDataUrl(file)
-  return await resizeDataUrl(dataUrl, maxSize)
+// avatarUrl points at the 256px variant; the same path serves 64 and 128.
+export function avatarSrc(avatarUrl: string | null | undefined, size: AvatarSize = 256): string | null {
+  if (!avatarUrl) return null
+  return API_BASE_URL + avatarUrl.replace(/\/\d+\.jpg$/, `/${size}.jpg`)
 }
 
-function fileToDataUrl(file: File): Promise<string> {
-  return new Promise((resolve, reject) => {
-    const reader = new FileReader()
-    reader.onerror = () => reject(new Error('Failed to read file'))
-    reader.onload = () => resolve(String(reader.result))
-    reader.readAsDataURL(file)
-  })
+export function uploadProfilePhoto(file: File): Promise<AuthResponse> {
+  const body = new FormData()
+  body.append('file', file)
+  return apiFetch<AuthResponse>('/auth/me/avatar', { method: 'PUT', body })
 }
 
-function resizeDataUrl(dataUrl: string, maxSize: number): Promise<string> {
-  return new Promise((resolve, reject) => {
-    const img = new Image()
-    img.onload = () => {
-      const ratio = Math.min(1, maxSize / Math.max(img.width, img.height))
-      const w = Math.max(1, Math.round(img.width * ratio))
-      const h = Math.max(1, Math.round(img.height * ratio))
-
-      const canvas = document.createElement('canvas')
-      canvas.width = w
-      canvas.height = h
-      const ctx = canvas.getContext('2d')
-      if (!ctx) {
-        reject(new Error('Canvas not supported'))
-        return
-      }
-
-      ctx.drawImage(img, 0, 0, w, h)
-
-      // Prefer JPEG to keep localStorage usage smaller.
-      const out = canvas.toDataURL('image/jpeg', 0.88)
-      resolve(out)
-    }
-    img.onerror = () => reject(new Error('Invalid image'))
-    img.src = dataUrl
-  })
+export function removeProfilePhoto(): Promise<AuthResponse> {
+  return apiFetch<AuthResponse>('/auth/me/avatar', { method: 'DELETE' })
 }
 
 export function initialsFromName(name: string | null | undefined, fallback: string | null | undefined) {
@@ -0,0 +1,23 @@
+import { apiFetch } from './api'
+
+export type UserSummary = { id: string; name: string; email: string; rootAdmin: boolean; emailVerified: boolean }
+type UserBatch = { users: UserSummary[]; missing: string[] }
+
+const BATCH_SIZE = 1000
+
+export async function fetchUsersByIds(ids: string[]): Promise<UserSummary[]> {
+  const unique = Array.from(new Set(ids))
+  const chunks: string[][] = []
+  for (let i = 0; i < unique.length; i += BATCH_SIZE) {
+    chunks.push(unique.slice(i, i + BATCH_SIZE))
+  }
+  const batches = await Promise.all(
+    chunks.map((chunk) =>
+      apiFetch<UserBatch>('/auth/users/batch', {
+        method: 'POST',
+        body: JSON.stringify({ ids: chunk })
+      })
+    )
+  )
+  return batches.flatMap((b) => b.users)
+}
@@ -0,0 +1,173 @@
+package com.taskmgr.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory token buckets for {@code RequestRateLimiter}, so rate limiting needs no Redis. Each
+ * {@code route|key} pair gets a bucket refilled continuously at {@code replenishRate} tokens per
+ * second up to {@code burstCapacity}; a request takes {@code requestedTokens}. Buckets are updated
+ * with a CAS loop, never a lock. Idle buckets are evicted after {@code idleSeconds} and the total is
+ * capped at {@code maxKeys}; an evicted bucket comes back full, so {@code idleSeconds} should be at
+ * least the time a route needs to refill. Limits are per gateway instance.
+ */
+@Component
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+  /** Route args prefix: {@code local-rate-limiter.replenish-rate} etc. */
+  public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+  public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+  public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+  public static final String RESET_HEADER = "X-RateLimit-Reset";
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  /** Per-route limits, bound from the filter args in {@code application.yml}. */
+  public static class Config {
+    private int replenishRate;
+    private int burstCapacity;
+    private int requestedTokens = 1;
+
+    public int getReplenishRate() {
+      return replenishRate;
+    }
+
+    public Config setReplenishRate(int replenishRate) {
+      if (replenishRate < 1) {
+        throw new IllegalArgumentException("replenish-rate must be at least 1");
+      }
+      this.replenishRate = replenishRate;
+      return this;
+    }
+
+    public int getBurstCapacity() {
+      return burstCapacity;
+    }
+
+    public Config setBurstCapacity(int burstCapacity) {
+      if (burstCapacity < 1) {
+        throw new IllegalArgumentException("burst-capacity must be at least 1");
+      }
+      this.burstCapacity = burstCapacity;
+      return this;
+    }
+
+    public int getRequestedTokens() {
+      return requestedTokens;
+    }
+
+    public Config setRequestedTokens(int requestedTokens) {
+      if (requestedTokens < 1) {
+        throw new IllegalArgumentException("requested-tokens must be at least 1");
+      }
+      this.requestedTokens = requestedTokens;
+      return this;
+    }
+
+    @Override
+    public String toString() {
+      return "Config{replenishRate=" + replenishRate + ", burstCapacity=" + burstCapacity
+          + ", requestedTokens=" + requestedTokens + "}";
+    }
+  }
+
+  /** Tokens left as of {@code refilledAtNanos}; replaced wholesale on every take. */
+  private record State(double tokens, long refilledAtNanos) {}
+
+  private record Take(boolean allowed, double tokens) {}
+
+  private final Config defaultConfig;
+  private final Cache<String, AtomicReference<State>> buckets;
+  private final MeterRegistry meters;
+  private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+  public LocalRateLimiter(
+      ConfigurationService configurationService,
+      MeterRegistry meters,
+      @Value("${app.rateLimit.defaultReplenishRate:20}") int defaultReplenishRate,
+      @Value("${app.rateLimit.defaultBurstCapacity:40}") int defaultBurstCapacity,
+      @Value("${app.rateLimit.maxKeys:100000}") long maxKeys,
+      @Value("${app.rateLimit.idleSeconds:300}") long idleSeconds
+  ) {
+    super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+    this.defaultConfig = new Config()
+        .setReplenishRate(defaultReplenishRate)
+        .setBurstCapacity(defaultBurstCapacity);
+    this.buckets = Caffeine.newBuilder()
+        .maximumSize(maxKeys)
+        .expireAfterAccess(Duration.ofSeconds(idleSeconds))
+        .build();
+    this.meters = meters;
+    Gauge.builder("gateway.ratelimit.keys", buckets, Cache::estimatedSize)
+        .description("Token buckets currently held in memory")
+        .register(meters);
+  }
+
+  @Override
+  public Mono<Response> isAllowed(String routeId, String id) {
+    Config config = getConfig().getOrDefault(routeId, defaultConfig);
+    // A route may set only some args; unset ones are 0 and fall back to the defaults.
+    int rate = config.getReplenishRate() > 0 ? config.getReplenishRate() : defaultConfig.getReplenishRate();
+    int capacity = config.getBurstCapacity() > 0 ? config.getBurstCapacity() : defaultConfig.getBurstCapacity();
+    int requested = config.getRequestedTokens();
+
+    long now = System.nanoTime();
+    AtomicReference<State> bucket = buckets.get(
+        routeId + "|" + id, k -> new AtomicReference<>(new State(capacity, now)));
+    Take take = take(bucket, now, rate, capacity, requested);
+
+    Map<String, String> headers = new LinkedHashMap<>();
+    headers.put(LIMIT_HEADER, Integer.toString(capacity));
+    headers.put(REMAINING_HEADER, Long.toString((long) Math.floor(take.tokens())));
+    headers.put(RESET_HEADER, Long.toString(secondsUntil(capacity - take.tokens(), rate)));
+    if (!take.allowed()) {
+      // Never satisfiable when requested > capacity; point at a full bucket rather than never.
+      double missing = Math.min(requested, capacity) - take.tokens();
+      headers.put(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, secondsUntil(missing, rate))));
+      rejections.computeIfAbsent(String.valueOf(routeId), this::rejectionCounter).increment();
+    }
+    return Mono.just(new Response(take.allowed(), headers));
+  }
+
+  private static Take take(AtomicReference<State> bucket, long now, int rate, int capacity, int requested) {
+    while (true) {
+      State current = bucket.get();
+      // nanoTime can appear to step back across cores; never refill on a negative delta.
+      long elapsed = Math.max(0, now - current.refilledAtNanos());
+      double available = Math.min(capacity, current.tokens() + (double) elapsed * rate / NANOS_PER_SECOND);
+      long refilledAt = Math.max(now, current.refilledAtNanos());
+
+      boolean allowed = available >= requested;
+      State next = new State(allowed ? available - requested : available, refilledAt);
+      if (bucket.compareAndSet(current, next)) {
+        return new Take(allowed, next.tokens());
+      }
+    }
+  }
+
+  private static long secondsUntil(double tokens, int rate) {
+    return tokens <= 0 ? 0 : (long) Math.ceil(tokens / rate);
+  }
+
+  private Counter rejectionCounter(String routeId) {
+    return Counter.builder("gateway.ratelimit.rejected")
+        .description("Requests denied by the local rate limiter")
+        .tag("route", routeId)
+        .register(meters);
+  }
+}
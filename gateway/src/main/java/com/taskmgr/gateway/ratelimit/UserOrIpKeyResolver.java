@@ -0,0 +1,53 @@
+package com.taskmgr.gateway.ratelimit;
+
+import com.taskmgr.gateway.security.JwtUserForwardingFilter;
+import com.taskmgr.gateway.security.VerifiedTokenCache.Principal;
+import java.net.InetSocketAddress;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rate-limit key for {@link LocalRateLimiter}: the client IP on {@code /auth/**} (mostly
+ * unauthenticated, and where guessing would happen), otherwise the user id that
+ * {@link JwtUserForwardingFilter} verified. Requests without a principal fall back to the IP, so
+ * the key is never empty and nothing is rejected for lack of one.
+ */
+@Component
+public class UserOrIpKeyResolver implements KeyResolver {
+
+  private final boolean trustForwardedFor;
+
+  public UserOrIpKeyResolver(@Value("${app.rateLimit.trustForwardedFor:false}") boolean trustForwardedFor) {
+    this.trustForwardedFor = trustForwardedFor;
+  }
+
+  @Override
+  public Mono<String> resolve(ServerWebExchange exchange) {
+    String path = exchange.getRequest().getURI().getPath();
+    if (!path.startsWith("/auth/")) {
+      Principal principal = exchange.getAttribute(JwtUserForwardingFilter.PRINCIPAL_ATTR);
+      if (principal != null && principal.userId() != null) {
+        return Mono.just("user:" + principal.userId());
+      }
+    }
+    return Mono.just("ip:" + clientIp(exchange));
+  }
+
+  private String clientIp(ServerWebExchange exchange) {
+    // Only honoured behind a proxy that overwrites it; otherwise any client could pick its own key.
+    if (trustForwardedFor) {
+      String forwarded = exchange.getRequest().getHeaders().getFirst("X-Forwarded-For");
+      if (forwarded != null && !forwarded.isBlank()) {
+        return forwarded.split(",", 2)[0].trim();
+      }
+    }
+    InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+    if (remote == null) {
+      return "unknown";
+    }
+    return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+  }
+}
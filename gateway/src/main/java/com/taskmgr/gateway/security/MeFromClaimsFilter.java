@@ -0,0 +1,136 @@
+package com.taskmgr.gateway.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taskmgr.gateway.security.VerifiedTokenCache.Principal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers {@code GET /auth/me} from the verified token instead of proxying it. Freshness comes from
+ * the token: every endpoint that changes a token-carried field returns a reissued token, which the
+ * client stores. As a backstop for clients still holding the old token, claims are also treated as
+ * stale when the token predates the profile claims, or when auth-service has reported a newer
+ * profile version for the user (via {@code X-Profile-User}/{@code X-Profile-Version} response
+ * headers, which this filter watches on every {@code /auth/**} response). That knowledge is per
+ * instance and in memory only. Stale requests are proxied as before.
+ */
+@Component
+public class MeFromClaimsFilter implements GlobalFilter, Ordered {
+
+  private static final String PROFILE_USER = "X-Profile-User";
+  private static final String PROFILE_VERSION = "X-Profile-Version";
+
+  private final ObjectMapper json;
+  private final Cache<String, Long> latestVersions;
+  private final Counter servedFromClaims;
+  private final Counter proxied;
+
+  public MeFromClaimsFilter(
+      ObjectMapper json,
+      MeterRegistry meters,
+      @Value("${app.me.versionCache.maxSize:100000}") long maxSize,
+      @Value("${app.jwt.cache.maxTtlSeconds:3600}") long tokenTtlSeconds
+  ) {
+    this.json = json;
+    // A version only matters while tokens issued before it can still be presented.
+    this.latestVersions = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofSeconds(tokenTtlSeconds))
+        .build();
+    this.servedFromClaims = Counter.builder("gateway.auth_me").tag("source", "claims").register(meters);
+    this.proxied = Counter.builder("gateway.auth_me").tag("source", "backend").register(meters);
+  }
+
+  @Override
+  public int getOrder() {
+    // Right after JwtUserForwardingFilter has put the principal on the exchange.
+    return -99;
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+    String path = exchange.getRequest().getURI().getPath();
+    if (!path.startsWith("/auth/")) {
+      return chain.filter(exchange);
+    }
+
+    if (path.equals("/auth/me") && HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+      Principal principal = exchange.getAttribute(JwtUserForwardingFilter.PRINCIPAL_ATTR);
+      if (principal != null && isFresh(principal)) {
+        servedFromClaims.increment();
+        return writeMe(exchange.getResponse(), principal);
+      }
+      proxied.increment();
+    }
+
+    ServerHttpResponse response = exchange.getResponse();
+    response.beforeCommit(() -> {
+      recordVersion(response.getHeaders());
+      return Mono.empty();
+    });
+    return chain.filter(exchange);
+  }
+
+  private boolean isFresh(Principal principal) {
+    if (principal.profileVersion() == null || principal.userId() == null) {
+      return false;
+    }
+    Long latest = latestVersions.getIfPresent(principal.userId());
+    return latest == null || principal.profileVersion() >= latest;
+  }
+
+  private void recordVersion(HttpHeaders headers) {
+    String userId = headers.getFirst(PROFILE_USER);
+    String version = headers.getFirst(PROFILE_VERSION);
+    headers.remove(PROFILE_USER);
+    headers.remove(PROFILE_VERSION);
+    if (userId == null || version == null) {
+      return;
+    }
+    try {
+      long v = Long.parseLong(version);
+      latestVersions.asMap().merge(userId, v, Math::max);
+    } catch (NumberFormatException ignored) {
+      // Not from auth-service; nothing to learn.
+    }
+  }
+
+  private Mono<Void> writeMe(ServerHttpResponse response, Principal principal) {
+    Map<String, Object> view = new LinkedHashMap<>();
+    view.put("id", principal.userId());
+    view.put("name", principal.name());
+    view.put("email", principal.email());
+    view.put("rootAdmin", principal.root());
+    view.put("emailVerified", principal.emailVerified());
+    view.put("avatarUrl", principal.avatarUrl());
+
+    byte[] body;
+    try {
+      body = json.writeValueAsBytes(view);
+    } catch (JsonProcessingException ex) {
+      return Mono.error(ex);
+    }
+    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+    response.getHeaders().setCacheControl("private, no-store");
+    DataBuffer buffer = response.bufferFactory().wrap(body);
+    return response.writeWith(Mono.just(buffer));
+  }
+}
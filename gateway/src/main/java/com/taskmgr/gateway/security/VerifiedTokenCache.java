@@ -0,0 +1,123 @@
+package com.taskmgr.gateway.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Verified bearer tokens, keyed by the SHA-256 of the token so raw tokens are never held in
+ * memory. An entry lives until the token's {@code exp} (or {@code maxTtlSeconds}, whichever is
+ * sooner), so a cached token never outlives its own validity. Rejected tokens are not cached.
+ */
+@Component
+public class VerifiedTokenCache {
+
+  /**
+   * Verified claims: the {@code X-User-*} headers forwarded downstream, plus the profile fields
+   * {@link MeFromClaimsFilter} answers {@code /auth/me} with. {@code profileVersion} is null for
+   * tokens issued before auth-service added the profile claims.
+   */
+  public record Principal(
+      String userId,
+      String email,
+      String name,
+      boolean root,
+      boolean emailVerified,
+      String avatarUrl,
+      Long profileVersion,
+      long expiresAtMillis
+  ) {}
+
+  private final JWTVerifier verifier;
+  private final Cache<String, Principal> principals;
+
+  public VerifiedTokenCache(
+      MeterRegistry meters,
+      @Value("${app.jwt.secret}") String secret,
+      @Value("${app.jwt.cache.maxSize:100000}") long maxSize,
+      @Value("${app.jwt.cache.maxTtlSeconds:3600}") long maxTtlSeconds
+  ) {
+    // Verifiers are immutable and thread-safe; build once instead of per request.
+    this.verifier = JWT.require(Algorithm.HMAC256(secret)).build();
+    long maxTtlNanos = Duration.ofSeconds(maxTtlSeconds).toNanos();
+    this.principals = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfter(new Expiry<String, Principal>() {
+          @Override
+          public long expireAfterCreate(String key, Principal p, long currentTime) {
+            if (p.expiresAtMillis() == Long.MAX_VALUE) {
+              return maxTtlNanos;
+            }
+            long remaining = Duration.ofMillis(p.expiresAtMillis() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(remaining, maxTtlNanos));
+          }
+
+          @Override
+          public long expireAfterUpdate(String key, Principal p, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, p, currentTime);
+          }
+
+          @Override
+          public long expireAfterRead(String key, Principal p, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meters, principals, "gateway_jwt");
+  }
+
+  /** The token's principal, verifying (and caching) it on a miss. */
+  public Principal resolve(String token) throws JWTVerificationException {
+    String key = digest(token);
+    Principal cached = principals.getIfPresent(key);
+    // Entries expire at exp anyway; this guards the sub-tick window before eviction runs.
+    if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis()) {
+      return cached;
+    }
+
+    Principal principal = decode(verifier.verify(token));
+    principals.put(key, principal);
+    return principal;
+  }
+
+  private static Principal decode(DecodedJWT jwt) {
+    Boolean root = jwt.getClaim("root").asBoolean();
+    Boolean emailVerified = jwt.getClaim("emailVerified").asBoolean();
+    Date exp = jwt.getExpiresAt();
+    return new Principal(
+        jwt.getSubject(),
+        jwt.getClaim("email").asString(),
+        jwt.getClaim("name").asString(),
+        root != null && root,
+        emailVerified != null && emailVerified,
+        jwt.getClaim("avatar").asString(),
+        jwt.getClaim("ver").asLong(),
+        exp == null ? Long.MAX_VALUE : exp.getTime()
+    );
+  }
+
+  private static String digest(String token) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(hash);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
@@ -0,0 +1,223 @@
+package com.taskmgr.auth.avatars;
+
+import com.taskmgr.auth.web.WebException;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Avatar files on local disk. An upload is decoded once, center-cropped to a square and written as
+ * one JPEG per entry in {@link #SIZES}, named {@code <sha256 of upload>-<size>.jpg}. Names are
+ * content-addressed, so a file never changes once written and identical uploads share files.
+ *
+ * <p>Uploads are decoded subsampled to about twice the largest variant, so memory per upload stays
+ * a few megabytes whatever the source resolution. Smaller variants are derived from the largest.
+ * At most {@code maxConcurrentDecodes} uploads are processed at once; beyond that, uploads wait up
+ * to {@code decodeWaitMillis} and then get a 503.
+ */
+@Component
+public class AvatarStore {
+
+  public static final List<Integer> SIZES = List.of(64, 128, 256);
+  private static final int DEFAULT_SIZE = 256;
+  private static final int MAX_SOURCE_PIXELS = 40_000_000;
+  private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+  private final Path dir;
+  private final Semaphore decodes;
+  private final long decodeWaitMillis;
+
+  public AvatarStore(
+      @Value("${app.avatars.dir:./data/avatars}") String dir,
+      @Value("${app.avatars.maxConcurrentDecodes:0}") int maxConcurrentDecodes,
+      @Value("${app.avatars.decodeWaitMillis:2000}") long decodeWaitMillis
+  ) throws IOException {
+    this.dir = Path.of(dir).toAbsolutePath().normalize();
+    Files.createDirectories(this.dir);
+    int permits = maxConcurrentDecodes > 0 ? maxConcurrentDecodes : Runtime.getRuntime().availableProcessors();
+    this.decodes = new Semaphore(permits);
+    this.decodeWaitMillis = decodeWaitMillis;
+  }
+
+  /** Public URL of the default variant, or null when the user has no avatar. */
+  public static String url(String hash) {
+    return hash == null ? null : "/auth/avatars/" + hash + "/" + DEFAULT_SIZE + ".jpg";
+  }
+
+  /** Decodes, resizes and stores an upload; returns its content hash. */
+  public String store(byte[] upload) {
+    String hash = sha256(upload);
+    if (SIZES.stream().allMatch(size -> Files.exists(file(hash, size)))) {
+      return hash;
+    }
+
+    acquireDecodePermit();
+    try {
+      // Largest first; each smaller variant is scaled from the one before it.
+      BufferedImage current = decodeSquare(upload, SIZES.get(SIZES.size() - 1));
+      for (int size : SIZES.reversed()) {
+        current = downscale(current, size);
+        Path target = file(hash, size);
+        if (!Files.exists(target)) {
+          write(target, encodeJpeg(current));
+        }
+      }
+    } finally {
+      decodes.release();
+    }
+    return hash;
+  }
+
+  private void acquireDecodePermit() {
+    try {
+      if (!decodes.tryAcquire(decodeWaitMillis, TimeUnit.MILLISECONDS)) {
+        throw new WebException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy. Try again shortly.");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new WebException(HttpStatus.SERVICE_UNAVAILABLE, "Request interrupted");
+    }
+  }
+
+  /** The stored variant, or null when the hash/size is unknown or malformed. */
+  public Path find(String hash, int size) {
+    if (!HASH.matcher(hash).matches() || !SIZES.contains(size)) {
+      return null;
+    }
+    Path path = file(hash, size);
+    return Files.isRegularFile(path) ? path : null;
+  }
+
+  private Path file(String hash, int size) {
+    return dir.resolve(hash + "-" + size + ".jpg");
+  }
+
+  /**
+   * Decodes only the centered square of the upload, subsampled so it is no more than about twice
+   * {@code largestSize} per side; a 40 MP photo never exists in memory at full resolution.
+   */
+  private static BufferedImage decodeSquare(byte[] upload, int largestSize) {
+    try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(upload))) {
+      Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+      if (readers == null || !readers.hasNext()) {
+        throw new WebException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Unsupported image format");
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(in, true, true);
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        // Check the header before decoding so a tiny file can't expand into gigabytes of pixels.
+        if ((long) width * height > MAX_SOURCE_PIXELS) {
+          throw new WebException(HttpStatus.BAD_REQUEST, "Image dimensions are too large");
+        }
+
+        int side = Math.min(width, height);
+        int step = Math.max(1, side / (largestSize * 2));
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+        param.setSourceSubsampling(step, step, 0, 0);
+        return reader.read(0, param);
+      } finally {
+        reader.dispose();
+      }
+    } catch (IOException ex) {
+      throw new WebException(HttpStatus.BAD_REQUEST, "Could not read image");
+    }
+  }
+
+  private static BufferedImage downscale(BufferedImage square, int size) {
+    // Halve in steps first: a single bicubic pass over a large ratio aliases badly.
+    BufferedImage current = square;
+    while (current.getWidth() / 2 >= size) {
+      current = scale(current, 0, 0, current.getWidth(), current.getWidth() / 2);
+    }
+    return current.getWidth() == size ? current : scale(current, 0, 0, current.getWidth(), size);
+  }
+
+  private static BufferedImage scale(BufferedImage source, int x, int y, int side, int size) {
+    BufferedImage out = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = out.createGraphics();
+    try {
+      g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+      g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      g.drawImage(source, 0, 0, size, size, x, y, x + side, y + side, Color.WHITE, null);
+    } finally {
+      g.dispose();
+    }
+    return out;
+  }
+
+  private static byte[] encodeJpeg(BufferedImage image) {
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(0.88f);
+      writer.setOutput(out);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    } finally {
+      writer.dispose();
+    }
+    return bytes.toByteArray();
+  }
+
+  // Write to a temp file and rename, so readers never see a partial file.
+  private void write(Path target, byte[] data) {
+    try {
+      Path tmp = Files.createTempFile(dir, "upload-", ".tmp");
+      try {
+        Files.write(tmp, data);
+        try {
+          Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+          Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static String sha256(byte[] data) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
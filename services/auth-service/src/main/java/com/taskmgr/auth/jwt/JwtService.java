@@ -2,8 +2,9 @@ package com.taskmgr.auth.jwt;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.taskmgr.auth.avatars.AvatarStore;
+import com.taskmgr.auth.users.UserEntity;
 import java.time.Instant;
-import java.util.UUID;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -16,17 +17,25 @@ public class JwtService {
     this.algorithm = Algorithm.HMAC256(secret);
   }
 
-  public String issueToken(UUID userId, String email, String name, boolean rootAdmin) {
+  /**
+   * Carries every {@code UserView} field so the gateway can answer {@code /auth/me} from the token.
+   * {@code ver} is the user's profile version at issue time; the gateway falls back to this service
+   * when it has seen a newer one.
+   */
+  public String issueToken(UserEntity user) {
     Instant now = Instant.now();
     Instant exp = now.plusSeconds(60L * 60L); // 1 hour
 
     return JWT.create()
-        .withSubject(userId.toString())
+        .withSubject(user.getId().toString())
         .withIssuedAt(now)
         .withExpiresAt(exp)
-        .withClaim("email", email)
-        .withClaim("name", name)
-        .withClaim("root", rootAdmin)
+        .withClaim("email", user.getEmail())
+        .withClaim("name", user.getName())
+        .withClaim("root", user.isRootAdmin())
+        .withClaim("emailVerified", user.isEmailVerified())
+        .withClaim("avatar", AvatarStore.url(user.getAvatarHash()))
+        .withClaim("ver", user.getProfileVersion())
         .sign(algorithm);
   }
 }
@@ -0,0 +1,41 @@
+package com.taskmgr.auth.mail;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/** Producer side of {@code outbound_mail}; {@link OutboundMailWorker} delivers what lands here. */
+@Component
+public class OutboundMailQueue {
+
+  private static final String INSERT = """
+      insert into outbound_mail (id, recipient, subject, body, expires_at)
+      values (?, ?, ?, ?, ?)
+      """;
+
+  private final JdbcTemplate jdbc;
+  private final OutboundMailWorker worker;
+
+  public OutboundMailQueue(JdbcTemplate jdbc, OutboundMailWorker worker) {
+    this.jdbc = jdbc;
+    this.worker = worker;
+  }
+
+  /**
+   * Stores the message and nudges the worker pool. {@code expiresAt} is optional; a message still
+   * undelivered by then is dead-lettered instead of sent late.
+   */
+  public void enqueue(String recipient, String subject, String body, OffsetDateTime expiresAt) {
+    jdbc.update(
+        INSERT,
+        UUID.randomUUID(),
+        recipient,
+        subject,
+        body,
+        expiresAt == null ? null : Timestamp.from(expiresAt.toInstant())
+    );
+    worker.wake();
+  }
+}
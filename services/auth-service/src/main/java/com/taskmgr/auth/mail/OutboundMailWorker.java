@@ -0,0 +1,251 @@
+package com.taskmgr.auth.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers {@code outbound_mail}. Up to {@code workers} drain loops run at once; each claims a batch
+ * with {@code SKIP LOCKED} (leasing it for {@code leaseSeconds}, so rows held by a crashed instance
+ * come back) and sends the whole batch over one SMTP connection. Delivered rows are deleted;
+ * failures back off exponentially until {@code maxAttempts}, then the row is dead-lettered.
+ */
+@Component
+public class OutboundMailWorker {
+
+  private record Claimed(UUID id, String recipient, String subject, String body, int attempts, Instant createdAt, Instant expiresAt) {}
+
+  private static final String CLAIM = """
+      update outbound_mail
+      set status = 'SENDING', next_attempt_at = now() + make_interval(secs => ?)
+      where id in (
+        select id from outbound_mail
+        where status <> 'DEAD' and next_attempt_at <= now()
+        order by next_attempt_at
+        limit ?
+        for update skip locked
+      )
+      returning id, recipient, subject, body, attempts, created_at, expires_at
+      """;
+  private static final String DELETE_SENT = "delete from outbound_mail where id = any(?)";
+  private static final String RETRY = """
+      update outbound_mail
+      set status = 'PENDING', attempts = attempts + 1, last_error = ?, next_attempt_at = now() + make_interval(secs => ?)
+      where id = ?
+      """;
+  private static final String DEAD_LETTER = """
+      update outbound_mail
+      set status = 'DEAD', attempts = attempts + 1, last_error = ?, body = null
+      where id = ?
+      """;
+  private static final String COUNT_PENDING = "select count(*) from outbound_mail where status <> 'DEAD'";
+
+  private final JdbcTemplate jdbc;
+  private final ObjectProvider<JavaMailSender> mailSender;
+  private final String mailFrom;
+  private final String mailHost;
+  private final int workers;
+  private final int batchSize;
+  private final long leaseSeconds;
+  private final int maxAttempts;
+  private final long baseBackoffSeconds;
+  private final long maxBackoffSeconds;
+
+  private final ExecutorService executor;
+  private final AtomicInteger active = new AtomicInteger();
+  private final AtomicLong pendingDepth = new AtomicLong();
+  private final Timer deliveryLatency;
+  private final Counter sent;
+  private final Counter retried;
+  private final Counter deadLettered;
+  private volatile boolean running = true;
+
+  public OutboundMailWorker(
+      JdbcTemplate jdbc,
+      ObjectProvider<JavaMailSender> mailSender,
+      MeterRegistry meters,
+      @Value("${app.mail.from:no-reply@unitify.local}") String mailFrom,
+      @Value("${spring.mail.host:}") String mailHost,
+      @Value("${app.mail.queue.workers:4}") int workers,
+      @Value("${app.mail.queue.batchSize:20}") int batchSize,
+      @Value("${app.mail.queue.leaseSeconds:120}") long leaseSeconds,
+      @Value("${app.mail.queue.maxAttempts:8}") int maxAttempts,
+      @Value("${app.mail.queue.baseBackoffSeconds:5}") long baseBackoffSeconds,
+      @Value("${app.mail.queue.maxBackoffSeconds:900}") long maxBackoffSeconds
+  ) {
+    this.jdbc = jdbc;
+    this.mailSender = mailSender;
+    this.mailFrom = mailFrom;
+    this.mailHost = mailHost;
+    this.workers = Math.max(1, workers);
+    this.batchSize = batchSize;
+    this.leaseSeconds = leaseSeconds;
+    this.maxAttempts = maxAttempts;
+    this.baseBackoffSeconds = baseBackoffSeconds;
+    this.maxBackoffSeconds = maxBackoffSeconds;
+
+    AtomicInteger seq = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(this.workers, r -> {
+      Thread t = new Thread(r, "outbound-mail-" + seq.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+
+    this.deliveryLatency = Timer.builder("mail.outbound.delivery")
+        .description("Time from enqueue to successful SMTP hand-off")
+        .publishPercentiles(0.5, 0.99)
+        .register(meters);
+    this.sent = Counter.builder("mail.outbound.sent").register(meters);
+    this.retried = Counter.builder("mail.outbound.retried").register(meters);
+    this.deadLettered = Counter.builder("mail.outbound.dead_lettered").register(meters);
+    Gauge.builder("mail.outbound.queue_depth", pendingDepth, AtomicLong::get)
+        .description("Messages waiting for delivery (refreshed every poll)")
+        .register(meters);
+  }
+
+  /** Starts drain loops until {@code workers} are running; cheap to call on every enqueue. */
+  public void wake() {
+    if (!running) return;
+    while (true) {
+      int current = active.get();
+      if (current >= workers) return;
+      if (active.compareAndSet(current, current + 1)) {
+        executor.execute(this::drain);
+        return;
+      }
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${app.mail.queue.pollMillis:1000}")
+  public void poll() {
+    Long pending = jdbc.queryForObject(COUNT_PENDING, Long.class);
+    pendingDepth.set(pending == null ? 0 : pending);
+    if (pendingDepth.get() > 0) {
+      for (int i = 0; i < workers; i++) {
+        wake();
+      }
+    }
+  }
+
+  private void drain() {
+    try {
+      JavaMailSender sender = mailSender.getIfAvailable();
+      if (sender == null || mailHost == null || mailHost.isBlank()) {
+        return;
+      }
+      while (running) {
+        List<Claimed> batch = jdbc.query(CLAIM, (rs, i) -> new Claimed(
+            rs.getObject("id", UUID.class),
+            rs.getString("recipient"),
+            rs.getString("subject"),
+            rs.getString("body"),
+            rs.getInt("attempts"),
+            rs.getTimestamp("created_at").toInstant(),
+            rs.getTimestamp("expires_at") == null ? null : rs.getTimestamp("expires_at").toInstant()
+        ), leaseSeconds, batchSize);
+        if (batch.isEmpty()) {
+          return;
+        }
+        deliver(sender, batch);
+      }
+    } catch (RuntimeException ex) {
+      System.out.println("[MAIL] Outbound mail worker failed: " + ex.getMessage());
+    } finally {
+      active.decrementAndGet();
+    }
+  }
+
+  private void deliver(JavaMailSender sender, List<Claimed> batch) {
+    Instant now = Instant.now();
+    Map<SimpleMailMessage, Claimed> byMessage = new IdentityHashMap<>();
+    for (Claimed c : batch) {
+      if (c.expiresAt() != null && c.expiresAt().isBefore(now)) {
+        deadLetter(c, "Expired before delivery");
+        continue;
+      }
+      SimpleMailMessage msg = new SimpleMailMessage();
+      msg.setFrom(mailFrom);
+      msg.setTo(c.recipient());
+      msg.setSubject(c.subject());
+      msg.setText(c.body());
+      byMessage.put(msg, c);
+    }
+    if (byMessage.isEmpty()) {
+      return;
+    }
+
+    Map<Object, Exception> failures = Map.of();
+    try {
+      // One connection for the whole batch.
+      sender.send(byMessage.keySet().toArray(new SimpleMailMessage[0]));
+    } catch (MailSendException ex) {
+      failures = ex.getFailedMessages();
+      if (failures.isEmpty()) {
+        failures = allFailed(byMessage, ex);
+      }
+    } catch (MailException ex) {
+      failures = allFailed(byMessage, ex);
+    }
+
+    List<UUID> delivered = new ArrayList<>();
+    Instant deliveredAt = Instant.now();
+    for (Map.Entry<SimpleMailMessage, Claimed> e : byMessage.entrySet()) {
+      Claimed c = e.getValue();
+      Exception failure = failures.get(e.getKey());
+      if (failure == null) {
+        delivered.add(c.id());
+        deliveryLatency.record(Duration.between(c.createdAt(), deliveredAt));
+      } else if (c.attempts() + 1 >= maxAttempts) {
+        deadLetter(c, failure.getMessage());
+      } else {
+        long backoff = Math.min(maxBackoffSeconds, baseBackoffSeconds << Math.min(c.attempts(), 20));
+        jdbc.update(RETRY, failure.getMessage(), backoff, c.id());
+        retried.increment();
+      }
+    }
+    if (!delivered.isEmpty()) {
+      jdbc.update(DELETE_SENT, ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", delivered.toArray())));
+      sent.increment(delivered.size());
+    }
+  }
+
+  private static Map<Object, Exception> allFailed(Map<SimpleMailMessage, Claimed> byMessage, Exception ex) {
+    Map<Object, Exception> failures = new IdentityHashMap<>();
+    byMessage.keySet().forEach(m -> failures.put(m, ex));
+    return failures;
+  }
+
+  private void deadLetter(Claimed c, String error) {
+    jdbc.update(DEAD_LETTER, error, c.id());
+    deadLettered.increment();
+    System.out.println("[MAIL] Dead-lettered " + c.id() + " to=" + c.recipient() + ": " + error);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    running = false;
+    executor.shutdown();
+  }
+}
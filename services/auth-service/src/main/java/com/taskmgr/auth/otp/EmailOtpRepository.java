@@ -12,10 +12,12 @@ import org.springframework.data.repository.query.Param;
 
 public interface EmailOtpRepository extends JpaRepository<EmailOtpEntity, UUID> {
 
+  // Emails are stored normalized (trimmed, lower-case); callers pass them the same way so the
+  // partial index on live codes can be used.
   @Lock(LockModeType.PESSIMISTIC_WRITE)
   @Query("""
       select o from EmailOtpEntity o
-      where lower(o.email) = lower(:email)
+      where o.email = :email
         and o.purpose = :purpose
         and o.consumedAt is null
         and o.expiresAt > :now
@@ -28,35 +30,42 @@ public interface EmailOtpRepository extends JpaRepository<EmailOtpEntity, UUID>
       Pageable pageable
   );
 
+  // Cold-start seeding for the in-memory rate limiter; newest first, capped at the limit.
   @Query("""
-      select count(o) from EmailOtpEntity o
+      select o.createdAt from EmailOtpEntity o
       where lower(o.email) = lower(:email)
         and o.purpose = :purpose
         and o.createdAt > :since
+      order by o.createdAt desc
       """)
-  long countRecentByEmailAndPurpose(
+  List<OffsetDateTime> findRecentCreatedAtByEmailAndPurpose(
       @Param("email") String email,
       @Param("purpose") OtpPurpose purpose,
-      @Param("since") OffsetDateTime since
+      @Param("since") OffsetDateTime since,
+      Pageable pageable
   );
 
   @Query("""
-      select count(o) from EmailOtpEntity o
+      select o.createdAt from EmailOtpEntity o
       where lower(o.email) = lower(:email)
         and o.createdAt > :since
+      order by o.createdAt desc
       """)
-  long countRecentByEmail(
+  List<OffsetDateTime> findRecentCreatedAtByEmail(
       @Param("email") String email,
-      @Param("since") OffsetDateTime since
+      @Param("since") OffsetDateTime since,
+      Pageable pageable
   );
 
   @Query("""
-      select count(o) from EmailOtpEntity o
+      select o.createdAt from EmailOtpEntity o
       where o.requestIp = :ip
         and o.createdAt > :since
+      order by o.createdAt desc
       """)
-  long countRecentByIp(
+  List<OffsetDateTime> findRecentCreatedAtByIp(
       @Param("ip") String ip,
-      @Param("since") OffsetDateTime since
+      @Param("since") OffsetDateTime since,
+      Pageable pageable
   );
 }
@@ -1,6 +1,8 @@
 package com.taskmgr.auth.otp;
 
 import com.taskmgr.auth.jwt.JwtService;
+import com.taskmgr.auth.mail.OutboundMailQueue;
+import com.taskmgr.auth.users.PasswordHasher;
 import com.taskmgr.auth.users.UserEntity;
 import com.taskmgr.auth.users.UserRepository;
 import com.taskmgr.auth.web.WebException;
@@ -11,15 +13,15 @@ import java.security.SecureRandom;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.HexFormat;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
-import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,8 +31,9 @@ public class EmailOtpService {
   private final EmailOtpRepository otps;
   private final UserRepository users;
   private final JwtService jwtService;
-  private final PasswordEncoder passwordEncoder;
+  private final PasswordHasher passwordHasher;
   private final ObjectProvider<JavaMailSender> mailSender;
+  private final OutboundMailQueue mailQueue;
   private final SecureRandom secureRandom = new SecureRandom();
 
   private final int ttlMinutes;
@@ -38,43 +41,62 @@ public class EmailOtpService {
   private final int rateEmail10Min;
   private final int rateEmailDay;
   private final int rateIp10Min;
-  private final String mailFrom;
   private final String otpHashSecret;
   private final String mailHost;
 
+  private final SlidingWindowLimiter emailPurposeLimiter;
+  private final SlidingWindowLimiter emailDayLimiter;
+  private final SlidingWindowLimiter ipLimiter;
+
   public EmailOtpService(
       EmailOtpRepository otps,
       UserRepository users,
       JwtService jwtService,
-      PasswordEncoder passwordEncoder,
+      PasswordHasher passwordHasher,
       ObjectProvider<JavaMailSender> mailSender,
+      OutboundMailQueue mailQueue,
       @Value("${app.otp.ttlMinutes:10}") int ttlMinutes,
       @Value("${app.otp.maxAttempts:5}") int maxAttempts,
       @Value("${app.otp.rate.perEmailPer10Min:3}") int rateEmail10Min,
       @Value("${app.otp.rate.perEmailPerDay:10}") int rateEmailDay,
       @Value("${app.otp.rate.perIpPer10Min:15}") int rateIp10Min,
-      @Value("${app.mail.from:no-reply@unitify.local}") String mailFrom,
+      @Value("${app.otp.rate.maxKeys:100000}") long rateMaxKeys,
         @Value("${app.jwt.secret:dev_super_secret_change_me}") String otpHashSecret,
         @Value("${spring.mail.host:}") String mailHost
   ) {
     this.otps = otps;
     this.users = users;
     this.jwtService = jwtService;
-    this.passwordEncoder = passwordEncoder;
+    this.passwordHasher = passwordHasher;
     this.mailSender = mailSender;
+    this.mailQueue = mailQueue;
     this.ttlMinutes = ttlMinutes;
     this.maxAttempts = maxAttempts;
     this.rateEmail10Min = rateEmail10Min;
     this.rateEmailDay = rateEmailDay;
     this.rateIp10Min = rateIp10Min;
-    this.mailFrom = mailFrom;
     this.otpHashSecret = otpHashSecret;
     this.mailHost = mailHost;
+
+    this.emailPurposeLimiter = new SlidingWindowLimiter(TimeUnit.MINUTES.toMillis(10), rateEmail10Min, rateMaxKeys);
+    this.emailDayLimiter = new SlidingWindowLimiter(TimeUnit.DAYS.toMillis(1), rateEmailDay, rateMaxKeys);
+    this.ipLimiter = new SlidingWindowLimiter(TimeUnit.MINUTES.toMillis(10), rateIp10Min, rateMaxKeys);
+  }
+
+  private static void release(SlidingWindowLimiter.Permit permit) {
+    if (permit != null) {
+      permit.release();
+    }
+  }
+
+  private static List<Long> epochMillis(List<OffsetDateTime> times) {
+    return times.stream().map(t -> t.toInstant().toEpochMilli()).toList();
   }
 
   public record OtpRequested(int expiresInSeconds) {}
 
-  public record OtpVerified(boolean verified, String accessToken, String userId) {}
+  // profileVersion is set when verification changed the user's profile.
+  public record OtpVerified(boolean verified, String accessToken, String userId, Long profileVersion) {}
 
   public record PasswordReset(boolean reset) {}
 
@@ -82,22 +104,43 @@ public class EmailOtpService {
     String email = normalizeEmail(emailRaw);
     OffsetDateTime now = OffsetDateTime.now();
 
-    // Rate limiting (email + IP)
-    long recentEmail = otps.countRecentByEmailAndPurpose(email, purpose, now.minus(10, ChronoUnit.MINUTES));
-    if (recentEmail >= rateEmail10Min) {
-      throw new WebException(HttpStatus.TOO_MANY_REQUESTS, "Too many OTP requests. Try again later.");
+    // Rate limiting, in memory; the DB is only read to seed a cold key. IP goes first: under
+    // credential stuffing every email is new, so only the IP window rejects without a seed query.
+    long nowMillis = now.toInstant().toEpochMilli();
+    SlidingWindowLimiter.Permit ipPermit = null;
+    if (requestIp != null && !requestIp.isBlank()) {
+      ipPermit = ipLimiter.tryAcquire(
+          requestIp,
+          nowMillis,
+          () -> epochMillis(otps.findRecentCreatedAtByIp(
+              requestIp, now.minus(10, ChronoUnit.MINUTES), PageRequest.of(0, rateIp10Min)))
+      );
+      if (ipPermit == null) {
+        throw new WebException(HttpStatus.TOO_MANY_REQUESTS, "Too many OTP requests. Try again later.");
+      }
     }
 
-    long recentDay = otps.countRecentByEmail(email, now.minus(1, ChronoUnit.DAYS));
-    if (recentDay >= rateEmailDay) {
-      throw new WebException(HttpStatus.TOO_MANY_REQUESTS, "Too many OTP requests today. Try again later.");
+    SlidingWindowLimiter.Permit emailPermit = emailPurposeLimiter.tryAcquire(
+        email + "|" + purpose.name(),
+        nowMillis,
+        () -> epochMillis(otps.findRecentCreatedAtByEmailAndPurpose(
+            email, purpose, now.minus(10, ChronoUnit.MINUTES), PageRequest.of(0, rateEmail10Min)))
+    );
+    if (emailPermit == null) {
+      release(ipPermit);
+      throw new WebException(HttpStatus.TOO_MANY_REQUESTS, "Too many OTP requests. Try again later.");
     }
 
-    if (requestIp != null && !requestIp.isBlank()) {
-      long recentIp = otps.countRecentByIp(requestIp, now.minus(10, ChronoUnit.MINUTES));
-      if (recentIp >= rateIp10Min) {
-        throw new WebException(HttpStatus.TOO_MANY_REQUESTS, "Too many OTP requests. Try again later.");
-      }
+    SlidingWindowLimiter.Permit dayPermit = emailDayLimiter.tryAcquire(
+        email,
+        nowMillis,
+        () -> epochMillis(otps.findRecentCreatedAtByEmail(
+            email, now.minus(1, ChronoUnit.DAYS), PageRequest.of(0, rateEmailDay)))
+    );
+    if (dayPermit == null) {
+      release(ipPermit);
+      emailPermit.release();
+      throw new WebException(HttpStatus.TOO_MANY_REQUESTS, "Too many OTP requests today. Try again later.");
     }
 
     Optional<UserEntity> user = users.findByEmailIgnoreCase(email);
@@ -160,22 +203,24 @@ public class EmailOtpService {
           .orElseThrow(() -> new WebException(HttpStatus.NOT_FOUND, "User not found"));
       user.setEmailVerified(true);
       users.save(user);
-      return new OtpVerified(true, null, user.getId().toString());
+      // The caller's token still says unverified; hand back one that doesn't.
+      String token = jwtService.issueToken(user);
+      return new OtpVerified(true, token, user.getId().toString(), user.getProfileVersion());
     }
 
     if (purpose == OtpPurpose.LOGIN) {
       UserEntity user = users.findByEmailIgnoreCase(email)
           .orElseThrow(() -> new WebException(HttpStatus.UNAUTHORIZED, "Invalid credentials"));
-      String token = jwtService.issueToken(user.getId(), user.getEmail(), user.getName(), user.isRootAdmin());
-      return new OtpVerified(true, token, user.getId().toString());
+      String token = jwtService.issueToken(user);
+      return new OtpVerified(true, token, user.getId().toString(), null);
     }
 
     if (purpose == OtpPurpose.RESET_PASSWORD) {
       // Purpose handled by /auth/password/reset endpoint.
-      return new OtpVerified(true, null, null);
+      return new OtpVerified(true, null, null, null);
     }
 
-    return new OtpVerified(true, null, null);
+    return new OtpVerified(true, null, null, null);
   }
 
   @Transactional
@@ -217,7 +262,7 @@ public class EmailOtpService {
     UserEntity user = users.findByEmailIgnoreCase(email)
         .orElseThrow(() -> new WebException(HttpStatus.BAD_REQUEST, "Invalid or expired code"));
 
-    user.setPasswordHash(passwordEncoder.encode(newPassword));
+    user.setPasswordHash(passwordHasher.encode(newPassword));
     users.save(user);
 
     return new PasswordReset(true);
@@ -290,17 +335,7 @@ public class EmailOtpService {
       return;
     }
 
-    SimpleMailMessage msg = new SimpleMailMessage();
-    msg.setFrom(mailFrom);
-    msg.setTo(email);
-    msg.setSubject(subject);
-    msg.setText(body);
-    try {
-      sender.send(msg);
-    } catch (Exception ex) {
-      // Don't block OTP flows in dev/staging if SMTP is misconfigured.
-      System.out.println("[OTP] Email send failed (falling back to log). To=" + email + " purpose=" + purpose + " code=" + code);
-      ex.printStackTrace(System.out);
-    }
+    // Delivered by OutboundMailWorker; the request only pays for one insert.
+    mailQueue.enqueue(email, subject, body, expiresAt);
   }
 }
@@ -0,0 +1,62 @@
+package com.taskmgr.auth.otp;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Deletes dead OTPs (consumed or expired) once they are older than the retention period. Each batch
+ * is its own short transaction and skips rows another instance (or a verification) has locked, so
+ * sweeping never blocks the request path.
+ */
+@Component
+public class EmailOtpSweeper {
+
+  private static final String DELETE_BATCH = """
+      delete from email_otps where id in (
+        select id from email_otps
+        where created_at < ?
+          and (consumed_at is not null or expires_at < now())
+        limit ?
+        for update skip locked
+      )
+      """;
+
+  private final JdbcTemplate jdbc;
+  private final TransactionTemplate tx;
+  private final long retentionHours;
+  private final int batchSize;
+  private final int maxBatchesPerRun;
+
+  public EmailOtpSweeper(
+      JdbcTemplate jdbc,
+      PlatformTransactionManager txManager,
+      @Value("${app.otp.sweep.retentionHours:48}") long retentionHours,
+      @Value("${app.otp.sweep.batchSize:500}") int batchSize,
+      @Value("${app.otp.sweep.maxBatchesPerRun:100}") int maxBatchesPerRun
+  ) {
+    this.jdbc = jdbc;
+    this.tx = new TransactionTemplate(txManager);
+    // Rows seed the per-day OTP rate limit, so never drop anything younger than a day.
+    this.retentionHours = Math.max(24, retentionHours);
+    this.batchSize = batchSize;
+    this.maxBatchesPerRun = maxBatchesPerRun;
+  }
+
+  @Scheduled(fixedDelayString = "${app.otp.sweep.intervalMillis:300000}")
+  public void sweep() {
+    Timestamp cutoff = Timestamp.from(Instant.now().minus(retentionHours, ChronoUnit.HOURS));
+    for (int i = 0; i < maxBatchesPerRun; i++) {
+      Integer deleted = tx.execute(status -> jdbc.update(DELETE_BATCH, cutoff, batchSize));
+      if (deleted == null || deleted < batchSize) {
+        return;
+      }
+    }
+  }
+}
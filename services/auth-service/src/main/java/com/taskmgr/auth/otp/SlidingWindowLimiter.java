@@ -0,0 +1,81 @@
+package com.taskmgr.auth.otp;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Exact sliding-window limiter: each key keeps the timestamps of its last {@code limit} permits in
+ * an {@link AtomicLongArray}, and a permit is taken by CAS-ing an expired slot to "now". No locks
+ * are held on the permit path.
+ *
+ * <p>Windows live in a Caffeine cache capped at {@code maxKeys}, so attacker-chosen keys cannot grow
+ * memory without bound. A key idle for a full window holds no live events and expires. State is per
+ * instance; a key that is not in memory (fresh instance, expired, or evicted by the size cap) is
+ * seeded once from the caller's {@code coldLoader}, which returns the epoch millis of the recent
+ * events recorded in the database.
+ */
+final class SlidingWindowLimiter {
+
+  /** A granted permit; {@link #release()} gives it back if a later check rejects the request. */
+  interface Permit {
+    void release();
+  }
+
+  private final long windowMillis;
+  private final int limit;
+  private final Cache<String, AtomicLongArray> windows;
+
+  SlidingWindowLimiter(long windowMillis, int limit, long maxKeys) {
+    this.windowMillis = windowMillis;
+    this.limit = limit;
+    // Slots are only written on access, so a window idle this long has nothing left in it.
+    this.windows = Caffeine.newBuilder()
+        .maximumSize(maxKeys)
+        .expireAfterAccess(Duration.ofMillis(windowMillis))
+        .build();
+  }
+
+  /** Returns a permit, or {@code null} when {@code key} already has {@code limit} events in the window. */
+  Permit tryAcquire(String key, long nowMillis, Supplier<List<Long>> coldLoader) {
+    if (limit <= 0) {
+      return null;
+    }
+    AtomicLongArray existing = windows.getIfPresent(key);
+    if (existing == null) {
+      // Load outside a compute so the DB round-trip never holds a map bin.
+      AtomicLongArray seeded = seed(coldLoader.get());
+      AtomicLongArray raced = windows.asMap().putIfAbsent(key, seeded);
+      existing = raced != null ? raced : seeded;
+    }
+    AtomicLongArray slots = existing;
+
+    long expiredBefore = nowMillis - windowMillis;
+    for (int i = 0; i < slots.length(); i++) {
+      long ts = slots.get(i);
+      while (ts <= expiredBefore) {
+        if (slots.compareAndSet(i, ts, nowMillis)) {
+          int slot = i;
+          long previous = ts;
+          return () -> slots.compareAndSet(slot, nowMillis, previous);
+        }
+        ts = slots.get(i);
+      }
+    }
+    return null;
+  }
+
+  private AtomicLongArray seed(List<Long> recent) {
+    AtomicLongArray slots = new AtomicLongArray(limit);
+    for (int i = 0; i < limit; i++) {
+      slots.set(i, Long.MIN_VALUE);
+    }
+    for (int i = 0; i < recent.size() && i < limit; i++) {
+      slots.set(i, recent.get(i));
+    }
+    return slots;
+  }
+}
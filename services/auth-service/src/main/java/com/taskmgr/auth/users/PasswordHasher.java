@@ -0,0 +1,106 @@
+package com.taskmgr.auth.users;
+
+import com.taskmgr.auth.web.WebException;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs BCrypt on a small fixed pool instead of the request threads, so a login burst queues here
+ * (and is shed with 503 once the queue is full) rather than starving every other endpoint.
+ */
+@Component
+public class PasswordHasher {
+
+  private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+  private final PasswordEncoder encoder;
+  private final int cost;
+  private final long waitMillis;
+  private final ThreadPoolExecutor executor;
+
+  public PasswordHasher(
+      PasswordEncoder encoder,
+      @Value("${app.password.bcryptCost:10}") int cost,
+      @Value("${app.password.threads:0}") int threads,
+      @Value("${app.password.queueCapacity:64}") int queueCapacity,
+      @Value("${app.password.waitMillis:5000}") long waitMillis
+  ) {
+    this.encoder = encoder;
+    this.cost = cost;
+    this.waitMillis = waitMillis;
+
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger seq = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(
+        poolSize,
+        poolSize,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+        r -> {
+          Thread t = new Thread(r, "password-hash-" + seq.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        },
+        new ThreadPoolExecutor.AbortPolicy()
+    );
+  }
+
+  public String encode(String rawPassword) {
+    return run(() -> encoder.encode(rawPassword));
+  }
+
+  public boolean matches(String rawPassword, String hash) {
+    return run(() -> encoder.matches(rawPassword, hash));
+  }
+
+  /** True when the stored hash was produced with a different cost than the configured one. */
+  public boolean needsRehash(String hash) {
+    Matcher m = BCRYPT_COST.matcher(hash == null ? "" : hash);
+    return !m.find() || Integer.parseInt(m.group(1)) != cost;
+  }
+
+  private <T> T run(Callable<T> work) {
+    Future<T> future;
+    try {
+      future = executor.submit(work);
+    } catch (RejectedExecutionException ex) {
+      throw new WebException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy. Try again shortly.");
+    }
+
+    try {
+      return future.get(waitMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      future.cancel(true);
+      throw new WebException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy. Try again shortly.");
+    } catch (InterruptedException ex) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new WebException(HttpStatus.SERVICE_UNAVAILABLE, "Request interrupted");
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new IllegalStateException(ex.getCause());
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+}
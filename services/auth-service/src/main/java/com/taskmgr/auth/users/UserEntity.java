@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import java.time.OffsetDateTime;
+import java.util.Objects;
 import java.util.UUID;
 
 @Entity
@@ -33,6 +34,13 @@ public class UserEntity {
   @Column(name = "email_verified", nullable = false)
   private boolean emailVerified;
 
+  @Column(name = "avatar_hash")
+  private String avatarHash;
+
+  // Bumped by the setters of token-carried fields; see JwtService.
+  @Column(name = "profile_version", nullable = false)
+  private long profileVersion;
+
   protected UserEntity() {}
 
   public UserEntity(
@@ -86,6 +94,24 @@ public class UserEntity {
   }
 
   public void setEmailVerified(boolean emailVerified) {
+    if (this.emailVerified != emailVerified) {
+      profileVersion++;
+    }
     this.emailVerified = emailVerified;
   }
+
+  public String getAvatarHash() {
+    return avatarHash;
+  }
+
+  public void setAvatarHash(String avatarHash) {
+    if (!Objects.equals(this.avatarHash, avatarHash)) {
+      profileVersion++;
+    }
+    this.avatarHash = avatarHash;
+  }
+
+  public long getProfileVersion() {
+    return profileVersion;
+  }
 }
@@ -1,11 +1,29 @@
 package com.taskmgr.auth.users;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface UserRepository extends JpaRepository<UserEntity, UUID> {
-  Optional<UserEntity> findByEmailIgnoreCase(String email);
+  // Spelled out so it compares lower(email) and hits the V7 index (derived IgnoreCase uses upper()).
+  @Query("select u from UserEntity u where lower(u.email) = lower(:email)")
+  Optional<UserEntity> findByEmailIgnoreCase(@Param("email") String email);
+
+  // Callers pass lower-cased emails.
+  @Query("select u from UserEntity u where lower(u.email) in :emails")
+  List<UserEntity> findByLowerEmailIn(@Param("emails") Collection<String> emails);
 
   long countByRootAdminTrue();
+
+  // Compare-and-set so a rehash on login never overwrites a concurrent password change.
+  @Transactional
+  @Modifying
+  @Query("update UserEntity u set u.passwordHash = :newHash where u.id = :id and u.passwordHash = :oldHash")
+  int replacePasswordHash(@Param("id") UUID id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
@@ -0,0 +1,89 @@
+package com.taskmgr.auth.users;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Autocomplete over the user directory. Email-prefix hits rank first, then name-prefix hits, then
+ * trigram matches on the name. Each branch is ordered and limited on its own; the prefix branches
+ * order with {@code ~<~}, the ordering of the V7 {@code text_pattern_ops} indexes, so they read the
+ * first {@code limit} index entries in order and stop instead of sorting every match;
+ * queries shorter than three characters have no usable trigrams and only match by prefix.
+ */
+@Component
+public class UserSearch {
+
+  public record Hit(UUID id, String name, String email, boolean rootAdmin, boolean emailVerified, String avatarHash) {}
+
+  private static final int MIN_FUZZY_LENGTH = 3;
+
+  private static final String SEARCH = """
+      select * from (
+        (select u.id, u.name, u.email, u.root_admin, u.email_verified, u.avatar_hash, 0 as rank, 1.0::real as score
+         from users u
+         where lower(u.email) like ?
+         order by lower(u.email) using ~<~
+         limit ?)
+        union all
+        (select u.id, u.name, u.email, u.root_admin, u.email_verified, u.avatar_hash, 1, 1.0::real
+         from users u
+         where lower(u.name) like ?
+         order by lower(u.name) using ~<~
+         limit ?)
+        %s
+      ) hits
+      order by rank, score desc, lower(email)
+      """;
+
+  private static final String FUZZY_BRANCH = """
+      union all
+        (select u.id, u.name, u.email, u.root_admin, u.email_verified, u.avatar_hash, 2, similarity(lower(u.name), ?)
+         from users u
+         where lower(u.name) % ?
+         order by 8 desc
+         limit ?)
+      """;
+
+  private final JdbcTemplate jdbc;
+
+  public UserSearch(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  public List<Hit> search(String query, int limit) {
+    String term = query.trim().toLowerCase(Locale.ROOT);
+    String prefix = escapeLike(term) + "%";
+    boolean fuzzy = term.length() >= MIN_FUZZY_LENGTH;
+
+    String sql = SEARCH.formatted(fuzzy ? FUZZY_BRANCH : "");
+    Object[] args = fuzzy
+        ? new Object[] {prefix, limit, prefix, limit, term, term, limit}
+        : new Object[] {prefix, limit, prefix, limit};
+
+    // A user can match several branches; keep the best-ranked occurrence.
+    Map<UUID, Hit> hits = new LinkedHashMap<>();
+    jdbc.query(sql, rs -> {
+      UUID id = rs.getObject("id", UUID.class);
+      if (hits.size() < limit && !hits.containsKey(id)) {
+        hits.put(id, new Hit(
+            id,
+            rs.getString("name"),
+            rs.getString("email"),
+            rs.getBoolean("root_admin"),
+            rs.getBoolean("email_verified"),
+            rs.getString("avatar_hash")
+        ));
+      }
+    }, args);
+    return List.copyOf(hits.values());
+  }
+
+  private static String escapeLike(String raw) {
+    return raw.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
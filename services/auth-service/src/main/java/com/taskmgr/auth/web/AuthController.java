@@ -1,18 +1,31 @@
 package com.taskmgr.auth.web;
 
+import com.taskmgr.auth.avatars.AvatarStore;
 import com.taskmgr.auth.jwt.JwtService;
+import com.taskmgr.auth.users.PasswordHasher;
 import com.taskmgr.auth.users.UserEntity;
 import com.taskmgr.auth.users.UserRepository;
+import com.taskmgr.auth.users.UserSearch;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.UUID;
 import org.springframework.http.HttpStatus;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -28,18 +41,21 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
   private final UserRepository users;
-  private final PasswordEncoder passwordEncoder;
+  private final UserSearch userSearch;
+  private final PasswordHasher passwordHasher;
   private final JwtService jwtService;
   private final String rootAdminKey;
 
   public AuthController(
       UserRepository users,
-      PasswordEncoder passwordEncoder,
+      UserSearch userSearch,
+      PasswordHasher passwordHasher,
       JwtService jwtService,
       @Value("${app.rootAdmin.key:}") String rootAdminKey
   ) {
     this.users = users;
-    this.passwordEncoder = passwordEncoder;
+    this.userSearch = userSearch;
+    this.passwordHasher = passwordHasher;
     this.jwtService = jwtService;
     this.rootAdminKey = rootAdminKey;
   }
@@ -55,7 +71,24 @@ public class AuthController {
 
   public record AuthResponse(String accessToken, UserView user) {}
 
-  public record UserView(String id, String name, String email, boolean rootAdmin, boolean emailVerified) {}
+  public record UserView(String id, String name, String email, boolean rootAdmin, boolean emailVerified, String avatarUrl) {
+    static UserView of(UserEntity user) {
+      return new UserView(
+          user.getId().toString(),
+          user.getName(),
+          user.getEmail(),
+          user.isRootAdmin(),
+          user.isEmailVerified(),
+          AvatarStore.url(user.getAvatarHash())
+      );
+    }
+  }
+
+  public record EmailLookupRequest(@NotNull @Size(max = 1000) List<String> emails) {}
+
+  public record UserBatchRequest(@NotNull @Size(max = 5000) List<String> ids) {}
+
+  public record UserBatchView(List<UserView> users, List<String> missing) {}
 
   @PostMapping("/register")
   @ResponseStatus(HttpStatus.CREATED)
@@ -78,7 +111,7 @@ public class AuthController {
     }
 
     UUID id = UUID.randomUUID();
-    String hash = passwordEncoder.encode(request.password());
+    String hash = passwordHasher.encode(request.password());
     UserEntity user = new UserEntity(
       id,
       request.name(),
@@ -90,10 +123,10 @@ public class AuthController {
     );
     users.save(user);
 
-    String token = jwtService.issueToken(user.getId(), user.getEmail(), user.getName(), user.isRootAdmin());
+    String token = jwtService.issueToken(user);
     return new AuthResponse(
       token,
-      new UserView(user.getId().toString(), user.getName(), user.getEmail(), user.isRootAdmin(), user.isEmailVerified())
+      UserView.of(user)
     );
   }
 
@@ -102,19 +135,33 @@ public class AuthController {
     UserEntity user = users.findByEmailIgnoreCase(request.email())
         .orElseThrow(() -> new WebException(HttpStatus.UNAUTHORIZED, "Invalid credentials"));
 
-    if (!passwordEncoder.matches(request.password(), user.getPasswordHash())) {
+    if (!passwordHasher.matches(request.password(), user.getPasswordHash())) {
       throw new WebException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
     }
 
-    String token = jwtService.issueToken(user.getId(), user.getEmail(), user.getName(), user.isRootAdmin());
+    // Bring the stored hash to the configured cost while we still have the plaintext.
+    if (passwordHasher.needsRehash(user.getPasswordHash())) {
+      rehash(user, request.password());
+    }
+
+    String token = jwtService.issueToken(user);
     return new AuthResponse(
       token,
-      new UserView(user.getId().toString(), user.getName(), user.getEmail(), user.isRootAdmin(), user.isEmailVerified())
+      UserView.of(user)
     );
   }
 
+  private void rehash(UserEntity user, String rawPassword) {
+    try {
+      String newHash = passwordHasher.encode(rawPassword);
+      users.replacePasswordHash(user.getId(), user.getPasswordHash(), newHash);
+    } catch (WebException ex) {
+      // Overloaded: the login itself succeeded, retry the upgrade next time.
+    }
+  }
+
   @GetMapping("/me")
-  public UserView me(@RequestHeader(name = "X-User-Id", required = false) String userId) {
+  public UserView me(@RequestHeader(name = "X-User-Id", required = false) String userId, HttpServletResponse response) {
     if (userId == null || userId.isBlank()) {
       throw new WebException(HttpStatus.UNAUTHORIZED, "Missing user context");
     }
@@ -122,7 +169,8 @@ public class AuthController {
     UserEntity user = users.findById(UUID.fromString(userId))
         .orElseThrow(() -> new WebException(HttpStatus.NOT_FOUND, "User not found"));
 
-    return new UserView(user.getId().toString(), user.getName(), user.getEmail(), user.isRootAdmin(), user.isEmailVerified());
+    ProfileVersionHeaders.set(response, user.getId(), user.getProfileVersion());
+    return UserView.of(user);
   }
 
   @GetMapping("/users/lookup")
@@ -137,7 +185,111 @@ public class AuthController {
     UserEntity user = users.findByEmailIgnoreCase(email)
         .orElseThrow(() -> new WebException(HttpStatus.NOT_FOUND, "User not found"));
 
-    return new UserView(user.getId().toString(), user.getName(), user.getEmail(), user.isRootAdmin(), user.isEmailVerified());
+    return UserView.of(user);
+  }
+
+  /** Member autocomplete: prefix match on email or name, then fuzzy name matches. */
+  @GetMapping("/users/search")
+  public List<UserView> searchUsers(
+      @RequestHeader(name = "X-User-Id", required = false) String requesterUserId,
+      @RequestParam("q") String q,
+      @RequestParam(name = "limit", defaultValue = "10") int limit
+  ) {
+    if (requesterUserId == null || requesterUserId.isBlank()) {
+      throw new WebException(HttpStatus.UNAUTHORIZED, "Missing user context");
+    }
+    if (limit < 1 || limit > 25) {
+      throw new WebException(HttpStatus.BAD_REQUEST, "limit must be between 1 and 25");
+    }
+    if (q.isBlank() || q.trim().length() < 2) {
+      return List.of();
+    }
+
+    return userSearch.search(q, limit).stream()
+        .map(h -> new UserView(h.id().toString(), h.name(), h.email(), h.rootAdmin(), h.emailVerified(), AvatarStore.url(h.avatarHash())))
+        .toList();
+  }
+
+  /** Resolves many emails at once; unknown emails are simply absent from the result. */
+  @PostMapping("/users/lookup")
+  public List<UserView> lookupByEmails(
+      @RequestHeader(name = "X-User-Id", required = false) String requesterUserId,
+      @Valid @RequestBody EmailLookupRequest request
+  ) {
+    if (requesterUserId == null || requesterUserId.isBlank()) {
+      throw new WebException(HttpStatus.UNAUTHORIZED, "Missing user context");
+    }
+
+    List<String> emails = request.emails().stream()
+        .filter(e -> e != null && !e.isBlank())
+        .map(e -> e.trim().toLowerCase(Locale.ROOT))
+        .distinct()
+        .toList();
+    if (emails.isEmpty()) {
+      return List.of();
+    }
+
+    return users.findByLowerEmailIn(emails).stream()
+        .map(UserView::of)
+        .toList();
+  }
+
+  /**
+   * Looks up many users with one query. {@code users} follows the order of the request (each id
+   * once); ids with no user are listed in {@code missing}.
+   */
+  @Transactional(readOnly = true)
+  @PostMapping("/users/batch")
+  public UserBatchView getUsersBatch(
+      @RequestHeader(name = "X-User-Id", required = false) String requesterUserId,
+      @Valid @RequestBody UserBatchRequest request
+  ) {
+    return usersBatch(requesterUserId, request.ids());
+  }
+
+  @Transactional(readOnly = true)
+  @GetMapping("/users/batch")
+  public UserBatchView getUsersBatchByQuery(
+      @RequestHeader(name = "X-User-Id", required = false) String requesterUserId,
+      @RequestParam("id") List<String> ids
+  ) {
+    if (ids.size() > 500) {
+      throw new WebException(HttpStatus.BAD_REQUEST, "Use POST /auth/users/batch for more than 500 ids");
+    }
+    return usersBatch(requesterUserId, ids);
+  }
+
+  private UserBatchView usersBatch(String requesterUserId, List<String> rawIds) {
+    if (requesterUserId == null || requesterUserId.isBlank()) {
+      throw new WebException(HttpStatus.UNAUTHORIZED, "Missing user context");
+    }
+
+    Set<UUID> ids = new LinkedHashSet<>();
+    for (String raw : rawIds) {
+      try {
+        ids.add(UUID.fromString(raw.trim()));
+      } catch (IllegalArgumentException | NullPointerException ex) {
+        throw new WebException(HttpStatus.BAD_REQUEST, "Invalid user id: " + raw);
+      }
+    }
+    if (ids.isEmpty()) {
+      return new UserBatchView(List.of(), List.of());
+    }
+
+    Map<UUID, UserEntity> found = users.findAllById(ids).stream()
+        .collect(Collectors.toMap(UserEntity::getId, Function.identity()));
+
+    List<UserView> views = new ArrayList<>(found.size());
+    List<String> missing = new ArrayList<>();
+    for (UUID id : ids) {
+      UserEntity user = found.get(id);
+      if (user == null) {
+        missing.add(id.toString());
+      } else {
+        views.add(UserView.of(user));
+      }
+    }
+    return new UserBatchView(views, missing);
   }
 
   @GetMapping("/users/{userId}")
@@ -152,6 +304,6 @@ public class AuthController {
     UserEntity user = users.findById(UUID.fromString(userId))
         .orElseThrow(() -> new WebException(HttpStatus.NOT_FOUND, "User not found"));
 
-    return new UserView(user.getId().toString(), user.getName(), user.getEmail(), user.isRootAdmin(), user.isEmailVerified());
+    return UserView.of(user);
   }
 }
@@ -0,0 +1,138 @@
+package com.taskmgr.auth.web;
+
+import com.taskmgr.auth.avatars.AvatarStore;
+import com.taskmgr.auth.jwt.JwtService;
+import com.taskmgr.auth.users.UserEntity;
+import com.taskmgr.auth.users.UserRepository;
+import com.taskmgr.auth.web.AuthController.AuthResponse;
+import com.taskmgr.auth.web.AuthController.UserView;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/auth")
+public class AvatarController {
+
+  // Tomcat's NIO connector advertises sendfile support through this request attribute.
+  private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  private final UserRepository users;
+  private final AvatarStore avatars;
+  private final JwtService jwtService;
+
+  public AvatarController(UserRepository users, AvatarStore avatars, JwtService jwtService) {
+    this.users = users;
+    this.avatars = avatars;
+    this.jwtService = jwtService;
+  }
+
+  /**
+   * Returns a reissued token alongside the user: the avatar is a token claim, and the caller's
+   * current token would otherwise keep the old one until it expires.
+   */
+  @PutMapping(path = "/me/avatar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  public AuthResponse uploadAvatar(
+      @RequestHeader(name = "X-User-Id", required = false) String userId,
+      @RequestParam("file") MultipartFile file,
+      HttpServletResponse response
+  ) throws IOException {
+    UserEntity user = currentUser(userId);
+    if (file.isEmpty()) {
+      throw new WebException(HttpStatus.BAD_REQUEST, "File is required");
+    }
+
+    user.setAvatarHash(avatars.store(file.getBytes()));
+    users.save(user);
+    ProfileVersionHeaders.set(response, user.getId(), user.getProfileVersion());
+    return new AuthResponse(jwtService.issueToken(user), UserView.of(user));
+  }
+
+  @DeleteMapping("/me/avatar")
+  public AuthResponse deleteAvatar(
+      @RequestHeader(name = "X-User-Id", required = false) String userId,
+      HttpServletResponse response
+  ) {
+    UserEntity user = currentUser(userId);
+    // Files are content-addressed and may be shared, so only the reference goes.
+    user.setAvatarHash(null);
+    users.save(user);
+    ProfileVersionHeaders.set(response, user.getId(), user.getProfileVersion());
+    return new AuthResponse(jwtService.issueToken(user), UserView.of(user));
+  }
+
+  /**
+   * Serves a stored variant. The URL names the content, so responses are immutable and the ETag
+   * is strong; the body goes out via sendfile when Tomcat offers it, else {@code transferTo}.
+   */
+  @GetMapping("/avatars/{hash}/{size}.jpg")
+  public void serveAvatar(
+      @PathVariable("hash") String hash,
+      @PathVariable("size") int size,
+      HttpServletRequest request,
+      HttpServletResponse response
+  ) throws IOException {
+    Path file = avatars.find(hash, size);
+    if (file == null) {
+      throw new WebException(HttpStatus.NOT_FOUND, "Avatar not found");
+    }
+
+    String etag = "\"" + hash + "-" + size + "\"";
+    response.setHeader(HttpHeaders.ETAG, etag);
+    response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+    response.setHeader("X-Content-Type-Options", "nosniff");
+    String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+    if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+      response.setStatus(HttpStatus.NOT_MODIFIED.value());
+      return;
+    }
+
+    response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long length = channel.size();
+      response.setContentLengthLong(length);
+
+      if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+        request.setAttribute(SENDFILE_FILENAME, file.toString());
+        request.setAttribute(SENDFILE_START, 0L);
+        request.setAttribute(SENDFILE_END, length);
+        return;
+      }
+
+      WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+      long position = 0;
+      while (position < length) {
+        position += channel.transferTo(position, length - position, out);
+      }
+    }
+  }
+
+  private UserEntity currentUser(String userId) {
+    if (userId == null || userId.isBlank()) {
+      throw new WebException(HttpStatus.UNAUTHORIZED, "Missing user context");
+    }
+    return users.findById(UUID.fromString(userId))
+        .orElseThrow(() -> new WebException(HttpStatus.NOT_FOUND, "User not found"));
+  }
+}
@@ -3,10 +3,12 @@ package com.taskmgr.auth.web;
 import com.taskmgr.auth.otp.EmailOtpService;
 import com.taskmgr.auth.otp.OtpPurpose;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import java.util.UUID;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -49,8 +51,11 @@ public class OtpController {
 
   @PostMapping("/verify")
   @ResponseStatus(HttpStatus.OK)
-  public VerifyOtpResponse verify(@Valid @RequestBody VerifyOtpRequest request) {
+  public VerifyOtpResponse verify(@Valid @RequestBody VerifyOtpRequest request, HttpServletResponse http) {
     EmailOtpService.OtpVerified res = emailOtpService.verifyOtp(request.email(), request.purpose(), request.code());
+    if (res.profileVersion() != null) {
+      ProfileVersionHeaders.set(http, UUID.fromString(res.userId()), res.profileVersion());
+    }
     return new VerifyOtpResponse(res.verified(), res.accessToken(), res.userId());
   }
 }
@@ -0,0 +1,21 @@
+package com.taskmgr.auth.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.UUID;
+
+/**
+ * Tells the gateway a user's current profile version. The gateway answers {@code /auth/me} from
+ * token claims, and uses these headers to spot tokens issued before the latest profile change.
+ */
+final class ProfileVersionHeaders {
+
+  static final String USER = "X-Profile-User";
+  static final String VERSION = "X-Profile-Version";
+
+  private ProfileVersionHeaders() {}
+
+  static void set(HttpServletResponse response, UUID userId, long version) {
+    response.setHeader(USER, userId.toString());
+    response.setHeader(VERSION, Long.toString(version));
+  }
+}
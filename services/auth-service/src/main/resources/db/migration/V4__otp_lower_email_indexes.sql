@@ -0,0 +1,6 @@
+-- OTP lookups and rate-limit seeding filter on lower(email); index the expression so they stop scanning.
+CREATE INDEX IF NOT EXISTS idx_email_otps_lower_email_purpose_created ON email_otps (lower(email), purpose, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_email_otps_lower_email_created ON email_otps (lower(email), created_at DESC);
+
+-- Superseded by the expression index above; nothing queries the raw column.
+DROP INDEX IF EXISTS idx_email_otps_email_purpose_created;
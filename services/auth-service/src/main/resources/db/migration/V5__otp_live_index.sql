@@ -0,0 +1,5 @@
+-- Verification only looks at unconsumed codes; keep that lookup off consumed rows entirely.
+CREATE INDEX IF NOT EXISTS idx_email_otps_live ON email_otps (email, purpose, created_at DESC) WHERE consumed_at IS NULL;
+
+-- Lets the sweeper find rows past retention without scanning the table.
+CREATE INDEX IF NOT EXISTS idx_email_otps_created ON email_otps (created_at);
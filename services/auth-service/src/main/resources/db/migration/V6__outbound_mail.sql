@@ -0,0 +1,16 @@
+-- Durable outbound mail queue. Rows are deleted once delivered; rows that run out of attempts
+-- (or outlive the code they carry) stay as DEAD with the body cleared.
+CREATE TABLE IF NOT EXISTS outbound_mail (
+  id UUID PRIMARY KEY,
+  recipient TEXT NOT NULL,
+  subject TEXT NOT NULL,
+  body TEXT NULL,
+  status TEXT NOT NULL DEFAULT 'PENDING',
+  attempts INT NOT NULL DEFAULT 0,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  expires_at TIMESTAMPTZ NULL,
+  last_error TEXT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbound_mail_due ON outbound_mail (next_attempt_at) WHERE status <> 'DEAD';
@@ -0,0 +1,8 @@
+-- Member autocomplete (GET /auth/users/search) and case-insensitive email lookups.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- text_pattern_ops serves both prefix LIKE and equality on lower(email), so login and
+-- /auth/users/lookup stop scanning the table as well.
+CREATE INDEX IF NOT EXISTS idx_users_email_prefix ON users (lower(email) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_name_prefix ON users (lower(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON users USING gin (lower(name) gin_trgm_ops);
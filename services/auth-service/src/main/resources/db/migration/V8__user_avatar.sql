@@ -0,0 +1,2 @@
+-- Content hash of the current avatar; files live under app.avatars.dir as <hash>-<size>.jpg.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS avatar_hash TEXT NULL;
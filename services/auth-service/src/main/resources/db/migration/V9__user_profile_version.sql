@@ -0,0 +1,3 @@
+-- Bumped whenever a field carried in access tokens changes, so holders of older tokens
+-- (the gateway's /auth/me) can tell their claims are stale.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS profile_version BIGINT NOT NULL DEFAULT 0;
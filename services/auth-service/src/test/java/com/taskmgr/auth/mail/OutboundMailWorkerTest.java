@@ -0,0 +1,154 @@
+package com.taskmgr.auth.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs the outbound mail queue against Postgres and an in-process SMTP server. The scheduled poll
+ * is pushed out of the way; each test drives the worker through {@link OutboundMailWorker#wake()}.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "spring.mail.properties.mail.smtp.connectiontimeout=2000",
+        "app.mail.queue.pollMillis=3600000",
+        "app.mail.queue.maxAttempts=3",
+        "app.mail.queue.baseBackoffSeconds=60",
+        "app.avatars.dir=target/test-avatars"
+    }
+)
+@Testcontainers(disabledWithoutDocker = true)
+class OutboundMailWorkerTest {
+
+  private static final long BASE_BACKOFF_SECONDS = 60;
+
+  @Container
+  static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+  @RegisterExtension
+  static final GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+  @DynamicPropertySource
+  static void datasource(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+  }
+
+  @Autowired
+  private OutboundMailQueue queue;
+
+  @Autowired
+  private OutboundMailWorker worker;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  @BeforeEach
+  void clearQueue() {
+    jdbc.update("delete from outbound_mail");
+  }
+
+  @Test
+  void deliveredMessageIsSentAndDeleted() throws Exception {
+    queue.enqueue("alice@example.com", "Your code", "123456", OffsetDateTime.now().plusMinutes(10));
+
+    await().atMost(Duration.ofSeconds(10)).until(() -> smtp.getReceivedMessages().length == 1);
+    await().atMost(Duration.ofSeconds(10)).until(() -> rowCount() == 0);
+
+    MimeMessage received = smtp.getReceivedMessages()[0];
+    assertThat(received.getAllRecipients()[0].toString()).isEqualTo("alice@example.com");
+    assertThat(received.getSubject()).isEqualTo("Your code");
+  }
+
+  @Test
+  void smtpFailureIsRetriedWithBackoff() {
+    smtp.stop();
+    queue.enqueue("bob@example.com", "Your code", "654321", OffsetDateTime.now().plusMinutes(10));
+
+    await().atMost(Duration.ofSeconds(10)).until(() -> attempts() == 1);
+    Map<String, Object> row = onlyRow();
+    assertThat(row.get("status")).isEqualTo("PENDING");
+    assertThat(row.get("last_error")).isNotNull();
+    assertThat(row.get("body")).isEqualTo("654321");
+    assertThat(secondsUntilNextAttempt()).isBetween(BASE_BACKOFF_SECONDS - 10, BASE_BACKOFF_SECONDS + 10);
+
+    // Make it due again: the second failure waits twice as long.
+    jdbc.update("update outbound_mail set next_attempt_at = now()");
+    worker.wake();
+
+    await().atMost(Duration.ofSeconds(10)).until(() -> attempts() == 2);
+    assertThat(onlyRow().get("status")).isEqualTo("PENDING");
+    assertThat(secondsUntilNextAttempt()).isBetween(2 * BASE_BACKOFF_SECONDS - 10, 2 * BASE_BACKOFF_SECONDS + 10);
+  }
+
+  @Test
+  void lastFailedAttemptDeadLettersAndClearsBody() {
+    smtp.stop();
+    jdbc.update("""
+        insert into outbound_mail (id, recipient, subject, body, attempts)
+        values (?, 'carol@example.com', 'Your code', '111111', 2)
+        """, UUID.randomUUID());
+    worker.wake();
+
+    await().atMost(Duration.ofSeconds(10)).until(() -> "DEAD".equals(onlyRow().get("status")));
+    Map<String, Object> row = onlyRow();
+    assertThat(row.get("attempts")).isEqualTo(3);
+    assertThat(row.get("body")).isNull();
+    assertThat(row.get("last_error")).isNotNull();
+  }
+
+  @Test
+  void expiredMessageIsDeadLetteredWithoutSending() {
+    queue.enqueue("dave@example.com", "Your code", "222222", OffsetDateTime.now().minusMinutes(1));
+
+    await().atMost(Duration.ofSeconds(10)).until(() -> "DEAD".equals(onlyRow().get("status")));
+    Map<String, Object> row = onlyRow();
+    assertThat(row.get("body")).isNull();
+    assertThat(row.get("last_error")).isEqualTo("Expired before delivery");
+    assertThat(smtp.getReceivedMessages()).isEmpty();
+  }
+
+  private int rowCount() {
+    Integer count = jdbc.queryForObject("select count(*) from outbound_mail", Integer.class);
+    return count == null ? 0 : count;
+  }
+
+  private int attempts() {
+    Integer attempts = jdbc.queryForObject("select coalesce(max(attempts), 0) from outbound_mail", Integer.class);
+    return attempts == null ? 0 : attempts;
+  }
+
+  private Map<String, Object> onlyRow() {
+    return jdbc.queryForMap("select status, attempts, body, last_error from outbound_mail");
+  }
+
+  private long secondsUntilNextAttempt() {
+    Long seconds = jdbc.queryForObject(
+        "select extract(epoch from next_attempt_at - now())::bigint from outbound_mail", Long.class);
+    return seconds == null ? 0 : seconds;
+  }
+}
@@ -2,8 +2,10 @@ package com.taskmgr.notif;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class NotificationServiceApplication {
   public static void main(String[] args) {
     SpringApplication.run(NotificationServiceApplication.class, args);
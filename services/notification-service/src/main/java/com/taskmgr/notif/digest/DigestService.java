@@ -0,0 +1,238 @@
+package com.taskmgr.notif.digest;
+
+import com.taskmgr.notif.digest.UserDirectoryClient.UserContact;
+import com.taskmgr.notif.model.NotificationDigestRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Periodic email digests of unread notifications.
+ *
+ * <p>One streaming query walks every due user's undigested unread notifications, ordered by
+ * user. Each user's group is handed to a bounded worker pool that claims the watermark, renders
+ * and sends the email; when the pool is saturated the reader thread does the work itself, which
+ * throttles the scan instead of buffering the whole table.
+ */
+@Service
+public class DigestService {
+
+  private static final String DUE_UNREAD = """
+      select n.user_id, n.message, n.occurrences, n.last_occurred_at
+      from notifications n
+      left join notification_read_marks r on r.user_id = n.user_id
+      left join notification_digests d on d.user_id = n.user_id
+      where n.is_read = false
+        and n.last_occurred_at <= ?
+        and n.last_occurred_at > coalesce(r.read_up_to, cast('-infinity' as timestamptz))
+        and n.last_occurred_at > coalesce(d.digested_up_to, cast('-infinity' as timestamptz))
+        and (
+          coalesce(d.frequency, 'DAILY') = 'HOURLY'
+          or (coalesce(d.frequency, 'DAILY') = 'DAILY' and (d.last_sent_at is null or d.last_sent_at <= ?))
+        )
+      order by n.user_id, n.last_occurred_at desc
+      """;
+
+  private record Item(String message, int occurrences, OffsetDateTime lastOccurredAt) {}
+
+  // Only the newest maxItems rows per user are kept; the rest are just counted.
+  private record UserDigest(UUID userId, List<Item> items, int total) {}
+
+  private final JdbcTemplate jdbc;
+  private final TransactionTemplate readOnlyTx;
+  private final NotificationDigestRepository digests;
+  private final UserDirectoryClient directory;
+  private final ObjectProvider<JavaMailSender> mailSender;
+  private final ThreadPoolExecutor workers;
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  private final boolean enabled;
+  private final int maxItems;
+  private final String mailFrom;
+  private final String mailHost;
+
+  public DigestService(
+      DataSource dataSource,
+      PlatformTransactionManager transactionManager,
+      NotificationDigestRepository digests,
+      UserDirectoryClient directory,
+      ObjectProvider<JavaMailSender> mailSender,
+      @Value("${app.digest.enabled:true}") boolean enabled,
+      @Value("${app.digest.workers:4}") int workerCount,
+      @Value("${app.digest.maxItems:20}") int maxItems,
+      @Value("${app.mail.from:no-reply@unitify.local}") String mailFrom,
+      @Value("${spring.mail.host:}") String mailHost
+  ) {
+    this.jdbc = new JdbcTemplate(dataSource);
+    this.jdbc.setFetchSize(500);
+    this.readOnlyTx = new TransactionTemplate(transactionManager);
+    this.readOnlyTx.setReadOnly(true);
+    this.digests = digests;
+    this.directory = directory;
+    this.mailSender = mailSender;
+    this.enabled = enabled;
+    this.maxItems = Math.max(1, maxItems);
+    this.mailFrom = mailFrom;
+    this.mailHost = mailHost;
+    this.workers = new ThreadPoolExecutor(
+        workerCount, workerCount, 30, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(workerCount * 4),
+        r -> {
+          Thread t = new Thread(r, "notif-digest");
+          t.setDaemon(true);
+          return t;
+        },
+        new ThreadPoolExecutor.CallerRunsPolicy()
+    );
+  }
+
+  @Scheduled(cron = "${app.digest.cron:0 0 * * * *}")
+  public void scheduledRun() {
+    if (enabled) {
+      runDigests();
+    }
+  }
+
+  /** Sends all due digests; returns the number of users a digest was sent to. */
+  public int runDigests() {
+    if (!running.compareAndSet(false, true)) {
+      return 0;
+    }
+    try {
+      OffsetDateTime now = OffsetDateTime.now();
+      OffsetDateTime dailyDue = now.minus(23, ChronoUnit.HOURS);
+      AtomicInteger sent = new AtomicInteger();
+      Phaser inFlight = new Phaser(1);
+
+      // Postgres only streams with a cursor inside a transaction (autocommit off + fetch size).
+      readOnlyTx.executeWithoutResult(status -> {
+        UUID[] current = {null};
+        int[] total = {0};
+        List<Item> items = new ArrayList<>();
+        jdbc.query(DUE_UNREAD, ps -> {
+          ps.setObject(1, now);
+          ps.setObject(2, dailyDue);
+        }, rs -> {
+          UUID userId = rs.getObject("user_id", UUID.class);
+          if (current[0] != null && !current[0].equals(userId)) {
+            submit(new UserDigest(current[0], List.copyOf(items), total[0]), now, sent, inFlight);
+            items.clear();
+            total[0] = 0;
+          }
+          current[0] = userId;
+          total[0]++;
+          if (items.size() < maxItems) {
+            items.add(new Item(
+                rs.getString("message"),
+                rs.getInt("occurrences"),
+                rs.getObject("last_occurred_at", OffsetDateTime.class)
+            ));
+          }
+        });
+        if (current[0] != null) {
+          submit(new UserDigest(current[0], List.copyOf(items), total[0]), now, sent, inFlight);
+        }
+      });
+
+      inFlight.arriveAndAwaitAdvance();
+      return sent.get();
+    } finally {
+      running.set(false);
+    }
+  }
+
+  private void submit(UserDigest digest, OffsetDateTime now, AtomicInteger sent, Phaser inFlight) {
+    inFlight.register();
+    workers.execute(() -> {
+      try {
+        if (sendDigest(digest, now)) {
+          sent.incrementAndGet();
+        }
+      } finally {
+        inFlight.arriveAndDeregister();
+      }
+    });
+  }
+
+  private boolean sendDigest(UserDigest digest, OffsetDateTime now) {
+    // Items arrive newest first, so the first one bounds everything this digest covers.
+    OffsetDateTime upTo = digest.items().get(0).lastOccurredAt();
+    if (digests.claim(digest.userId(), upTo, now) == 0) {
+      return false;
+    }
+
+    UserContact user = directory.find(digest.userId()).orElse(null);
+    if (user == null || user.email() == null || user.email().isBlank()) {
+      return false;
+    }
+
+    String subject = digest.total() == 1
+        ? "You have 1 unread notification"
+        : "You have " + digest.total() + " unread notifications";
+    String body = render(user, digest);
+
+    JavaMailSender sender = mailSender.getIfAvailable();
+    if (sender == null || mailHost == null || mailHost.isBlank()) {
+      // Dev fallback: no SMTP configured.
+      System.out.println("[DIGEST] To=" + user.email() + " subject=" + subject + "\n" + body);
+      return true;
+    }
+
+    SimpleMailMessage msg = new SimpleMailMessage();
+    msg.setFrom(mailFrom);
+    msg.setTo(user.email());
+    msg.setSubject(subject);
+    msg.setText(body);
+    try {
+      sender.send(msg);
+      return true;
+    } catch (Exception ex) {
+      System.out.println("[DIGEST] Email send failed. To=" + user.email());
+      ex.printStackTrace(System.out);
+      return false;
+    }
+  }
+
+  private String render(UserContact user, UserDigest digest) {
+    List<Item> items = digest.items();
+    StringBuilder sb = new StringBuilder();
+    sb.append("Hi ").append(user.name() == null ? "there" : user.name()).append(",\n\n");
+    sb.append("Here is what happened while you were away:\n\n");
+    for (Item item : items) {
+      sb.append("- ").append(item.message());
+      if (item.occurrences() > 1) {
+        sb.append(" (x").append(item.occurrences()).append(")");
+      }
+      sb.append("\n");
+    }
+    if (digest.total() > items.size()) {
+      sb.append("\n...and ").append(digest.total() - items.size()).append(" more.\n");
+    }
+    sb.append("\nOpen Unitify to see all notifications.\n");
+    return sb.toString();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    workers.shutdown();
+  }
+}
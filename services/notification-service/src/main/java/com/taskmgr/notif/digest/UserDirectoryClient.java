@@ -0,0 +1,32 @@
+package com.taskmgr.notif.digest;
+
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+@Component
+public class UserDirectoryClient {
+
+  public record UserContact(String id, String name, String email) {}
+
+  private final RestClient restClient;
+
+  public UserDirectoryClient(@Value("${app.auth.base-url}") String baseUrl) {
+    this.restClient = RestClient.builder().baseUrl(baseUrl).build();
+  }
+
+  public Optional<UserContact> find(UUID userId) {
+    try {
+      return Optional.ofNullable(restClient.get()
+          .uri("/auth/users/{userId}", userId)
+          // Internal call: auth-service only requires some user context on this endpoint.
+          .header("X-User-Id", userId.toString())
+          .retrieve()
+          .body(UserContact.class));
+    } catch (Exception ex) {
+      return Optional.empty();
+    }
+  }
+}
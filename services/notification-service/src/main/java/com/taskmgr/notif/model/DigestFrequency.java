@@ -0,0 +1,7 @@
+package com.taskmgr.notif.model;
+
+public enum DigestFrequency {
+  HOURLY,
+  DAILY,
+  OFF
+}
@@ -0,0 +1,60 @@
+package com.taskmgr.notif.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Per-user email digest settings and watermark. Notifications that last occurred at or before
+ * {@code digestedUpTo} have already been claimed by a digest and are never emailed again.
+ */
+@Entity
+@Table(name = "notification_digests")
+public class NotificationDigestEntity {
+
+  @Id
+  @Column(name = "user_id", columnDefinition = "uuid")
+  private UUID userId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private DigestFrequency frequency;
+
+  @Column(name = "digested_up_to")
+  private OffsetDateTime digestedUpTo;
+
+  @Column(name = "last_sent_at")
+  private OffsetDateTime lastSentAt;
+
+  protected NotificationDigestEntity() {}
+
+  public NotificationDigestEntity(UUID userId, DigestFrequency frequency) {
+    this.userId = userId;
+    this.frequency = frequency;
+  }
+
+  public UUID getUserId() {
+    return userId;
+  }
+
+  public DigestFrequency getFrequency() {
+    return frequency;
+  }
+
+  public OffsetDateTime getDigestedUpTo() {
+    return digestedUpTo;
+  }
+
+  public OffsetDateTime getLastSentAt() {
+    return lastSentAt;
+  }
+
+  public void setFrequency(DigestFrequency frequency) {
+    this.frequency = frequency;
+  }
+}
@@ -0,0 +1,29 @@
+package com.taskmgr.notif.model;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface NotificationDigestRepository extends JpaRepository<NotificationDigestEntity, UUID> {
+
+  // Moves the watermark forward before the email goes out; 0 rows means another run already
+  // claimed these notifications, which keeps every notification in at most one digest. Runs in
+  // its own transaction so it commits even when called from the digest scan's read-only one.
+  @Modifying
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  @Query(value = """
+      insert into notification_digests (user_id, frequency, digested_up_to, last_sent_at)
+      values (:userId, 'DAILY', :upTo, :now)
+      on conflict (user_id) do update
+        set digested_up_to = excluded.digested_up_to,
+            last_sent_at = excluded.last_sent_at
+        where notification_digests.digested_up_to is null
+           or notification_digests.digested_up_to < excluded.digested_up_to
+      """, nativeQuery = true)
+  int claim(@Param("userId") UUID userId, @Param("upTo") OffsetDateTime upTo, @Param("now") OffsetDateTime now);
+}
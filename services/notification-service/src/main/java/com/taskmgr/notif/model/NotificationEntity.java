@@ -36,6 +36,15 @@ public class NotificationEntity {
   @Column(name = "created_at", nullable = false)
   private OffsetDateTime createdAt;
 
+  @Column(name = "last_occurred_at", nullable = false)
+  private OffsetDateTime lastOccurredAt;
+
+  @Column(nullable = false)
+  private int occurrences;
+
+  @Column(nullable = false)
+  private boolean coalescible;
+
   protected NotificationEntity() {}
 
   public NotificationEntity(UUID id, UUID userId, String type, String message, String refType, String refId, boolean isRead, OffsetDateTime createdAt) {
@@ -47,6 +56,9 @@ public class NotificationEntity {
     this.refId = refId;
     this.isRead = isRead;
     this.createdAt = createdAt;
+    this.lastOccurredAt = createdAt;
+    this.occurrences = 1;
+    this.coalescible = false;
   }
 
   public UUID getId() {
@@ -81,6 +93,18 @@ public class NotificationEntity {
     return createdAt;
   }
 
+  public OffsetDateTime getLastOccurredAt() {
+    return lastOccurredAt;
+  }
+
+  public int getOccurrences() {
+    return occurrences;
+  }
+
+  public boolean isCoalescible() {
+    return coalescible;
+  }
+
   public void markRead() {
     this.isRead = true;
   }
@@ -0,0 +1,41 @@
+package com.taskmgr.notif.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Per-user "read up to" watermark. Every notification created at or before
+ * {@code readUpTo} counts as read, regardless of its own {@code is_read} flag.
+ */
+@Entity
+@Table(name = "notification_read_marks")
+public class NotificationReadMarkEntity {
+
+  @Id
+  @Column(name = "user_id", columnDefinition = "uuid")
+  private UUID userId;
+
+  @Column(name = "read_up_to", nullable = false)
+  private OffsetDateTime readUpTo;
+
+  @Column(name = "updated_at", nullable = false)
+  private OffsetDateTime updatedAt;
+
+  protected NotificationReadMarkEntity() {}
+
+  public UUID getUserId() {
+    return userId;
+  }
+
+  public OffsetDateTime getReadUpTo() {
+    return readUpTo;
+  }
+
+  public OffsetDateTime getUpdatedAt() {
+    return updatedAt;
+  }
+}
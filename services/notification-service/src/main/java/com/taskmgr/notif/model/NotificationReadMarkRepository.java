@@ -0,0 +1,24 @@
+package com.taskmgr.notif.model;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface NotificationReadMarkRepository extends JpaRepository<NotificationReadMarkEntity, UUID> {
+
+  // Single-row upsert; the watermark only ever moves forward.
+  @Modifying
+  @Transactional
+  @Query(value = """
+      insert into notification_read_marks (user_id, read_up_to, updated_at)
+      values (:userId, :readUpTo, now())
+      on conflict (user_id) do update
+        set read_up_to = greatest(notification_read_marks.read_up_to, excluded.read_up_to),
+            updated_at = now()
+      """, nativeQuery = true)
+  int advance(@Param("userId") UUID userId, @Param("readUpTo") OffsetDateTime readUpTo);
+}
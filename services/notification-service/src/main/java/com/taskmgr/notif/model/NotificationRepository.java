@@ -1,10 +1,108 @@
 package com.taskmgr.notif.model;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface NotificationRepository extends JpaRepository<NotificationEntity, UUID> {
-  List<NotificationEntity> findByUserIdOrderByCreatedAtDesc(UUID userId);
-  List<NotificationEntity> findByUserIdAndIsReadOrderByCreatedAtDesc(UUID userId, boolean isRead);
+  @Query("""
+      select new com.taskmgr.notif.model.NotificationRow(
+        n.id, n.userId, n.type, n.message, n.refType, n.refId, n.isRead, n.createdAt, n.occurrences, n.lastOccurredAt)
+      from NotificationEntity n
+      where n.userId = :userId
+      order by n.lastOccurredAt desc
+      """)
+  List<NotificationRow> findRows(@Param("userId") UUID userId);
+
+  @Query("""
+      select new com.taskmgr.notif.model.NotificationRow(
+        n.id, n.userId, n.type, n.message, n.refType, n.refId, n.isRead, n.createdAt, n.occurrences, n.lastOccurredAt)
+      from NotificationEntity n
+      where n.userId = :userId
+        and n.isRead = false
+        and n.lastOccurredAt > :readUpTo
+      order by n.lastOccurredAt desc
+      """)
+  List<NotificationRow> findUnreadRows(@Param("userId") UUID userId, @Param("readUpTo") OffsetDateTime readUpTo);
+
+  @Query("""
+      select new com.taskmgr.notif.model.NotificationRow(
+        n.id, n.userId, n.type, n.message, n.refType, n.refId, n.isRead, n.createdAt, n.occurrences, n.lastOccurredAt)
+      from NotificationEntity n
+      where n.userId = :userId
+        and (n.isRead = true or n.lastOccurredAt <= :readUpTo)
+      order by n.lastOccurredAt desc
+      """)
+  List<NotificationRow> findReadRows(@Param("userId") UUID userId, @Param("readUpTo") OffsetDateTime readUpTo);
+
+  @Query("""
+      select count(n) from NotificationEntity n
+      where n.userId = :userId
+        and n.isRead = false
+        and n.lastOccurredAt > :readUpTo
+      """)
+  long countUnread(@Param("userId") UUID userId, @Param("readUpTo") OffsetDateTime readUpTo);
+
+  @Query("""
+      select n from NotificationEntity n
+      where n.userId = :userId
+        and (n.lastOccurredAt > :occurredAt or (n.lastOccurredAt = :occurredAt and n.id > :id))
+      order by n.lastOccurredAt asc, n.id asc
+      """)
+  List<NotificationEntity> findAfter(
+      @Param("userId") UUID userId,
+      @Param("occurredAt") OffsetDateTime occurredAt,
+      @Param("id") UUID id,
+      Pageable pageable
+  );
+
+  /**
+   * Inserts a coalescible notification, or folds it into the open unread row for the same
+   * (user, type, ref) when that row last fired after {@code windowStart} and after the user's
+   * read watermark. Returns nothing when an open row exists but is outside the window.
+   */
+  @Query(value = """
+      insert into notifications
+        (id, user_id, type, message, ref_type, ref_id, is_read, created_at, last_occurred_at, occurrences, coalescible)
+      values
+        (:id, :userId, :type, :message, :refType, :refId, false, :now, :now, 1, true)
+      on conflict (user_id, type, ref_type, ref_id) where is_read = false and coalescible
+      do update set
+        occurrences = notifications.occurrences + 1,
+        message = excluded.message,
+        last_occurred_at = excluded.last_occurred_at
+      where notifications.last_occurred_at >= :windowStart
+        and notifications.last_occurred_at > coalesce(
+          (select m.read_up_to from notification_read_marks m where m.user_id = notifications.user_id),
+          cast('-infinity' as timestamptz))
+      returning *
+      """, nativeQuery = true)
+  List<NotificationEntity> upsertCoalesced(
+      @Param("id") UUID id,
+      @Param("userId") UUID userId,
+      @Param("type") String type,
+      @Param("message") String message,
+      @Param("refType") String refType,
+      @Param("refId") String refId,
+      @Param("now") OffsetDateTime now,
+      @Param("windowStart") OffsetDateTime windowStart
+  );
+
+  @Modifying
+  @Query(value = """
+      update notifications set coalescible = false
+      where user_id = :userId and type = :type and ref_type = :refType and ref_id = :refId
+        and is_read = false and coalescible
+      """, nativeQuery = true)
+  int closeCoalescing(
+      @Param("userId") UUID userId,
+      @Param("type") String type,
+      @Param("refType") String refType,
+      @Param("refId") String refId
+  );
 }
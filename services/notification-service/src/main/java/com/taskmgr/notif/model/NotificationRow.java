@@ -0,0 +1,18 @@
+package com.taskmgr.notif.model;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** Read-only projection of a notification for the list endpoint. */
+public record NotificationRow(
+    UUID id,
+    UUID userId,
+    String type,
+    String message,
+    String refType,
+    String refId,
+    boolean read,
+    OffsetDateTime createdAt,
+    int occurrences,
+    OffsetDateTime lastOccurredAt
+) {}
@@ -0,0 +1,223 @@
+package com.taskmgr.notif.stream;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * In-memory registry of open SSE connections, keyed by user.
+ *
+ * <p>Publishing never blocks on a client: events are appended to a bounded per-connection
+ * queue and written by a virtual thread. A connection whose queue fills up is closed so the
+ * client reconnects and catches up from the database via {@code Last-Event-ID}.
+ */
+@Component
+public class NotificationStreamRegistry {
+
+  public record StreamEvent(String id, Object payload) {}
+
+  private static final StreamEvent HEARTBEAT = new StreamEvent(null, null);
+
+  private final Map<UUID, CopyOnWriteArrayList<Subscription>> subscriptions = new ConcurrentHashMap<>();
+  private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+  private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread t = new Thread(r, "sse-heartbeat");
+    t.setDaemon(true);
+    return t;
+  });
+
+  private final int bufferSize;
+  private final long timeoutMillis;
+
+  public NotificationStreamRegistry(
+      @Value("${app.stream.bufferSize:256}") int bufferSize,
+      @Value("${app.stream.timeoutMinutes:30}") long timeoutMinutes,
+      @Value("${app.stream.heartbeatSeconds:15}") long heartbeatSeconds
+  ) {
+    this.bufferSize = bufferSize;
+    this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+    heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Registers a new connection for {@code userId}. Live events are buffered but not written
+   * until {@link #start} is called, so the caller can load a replay backlog without losing
+   * anything published in between.
+   */
+  public Subscription open(UUID userId) {
+    Subscription s = new Subscription(userId, new SseEmitter(timeoutMillis));
+    s.emitter.onCompletion(() -> remove(s));
+    s.emitter.onTimeout(() -> remove(s));
+    s.emitter.onError(ex -> remove(s));
+    subscriptions.compute(userId, (k, list) -> {
+      CopyOnWriteArrayList<Subscription> l = (list == null) ? new CopyOnWriteArrayList<>() : list;
+      l.add(s);
+      return l;
+    });
+    return s;
+  }
+
+  /**
+   * Sends {@code replay}, then the live events buffered since {@link #open}. Buffered events
+   * already in the replay are skipped; event ids carry the row version, so only exact repeats
+   * match, and the check ends once the buffer has been drained.
+   */
+  public void start(Subscription s, List<StreamEvent> replay) {
+    s.replay = replay;
+    for (StreamEvent e : replay) {
+      s.replayedIds.add(e.id());
+    }
+    s.ready = true;
+    s.scheduleDrain();
+  }
+
+  /**
+   * Drops a connection that will never be {@linkplain #start started}, e.g. because loading its
+   * replay failed. The emitter was never handed to Spring MVC, so its callbacks won't clean up.
+   */
+  public void cancel(Subscription s) {
+    remove(s);
+    s.emitter.complete();
+  }
+
+  public void publish(UUID userId, StreamEvent event) {
+    List<Subscription> list = subscriptions.get(userId);
+    if (list == null) return;
+    for (Subscription s : list) {
+      s.offer(event);
+    }
+  }
+
+  public int connectionCount() {
+    return subscriptions.values().stream().mapToInt(List::size).sum();
+  }
+
+  private void heartbeat() {
+    for (List<Subscription> list : subscriptions.values()) {
+      for (Subscription s : list) {
+        if (s.size.get() == 0) {
+          s.offer(HEARTBEAT);
+        }
+      }
+    }
+  }
+
+  private void remove(Subscription s) {
+    s.closed = true;
+    subscriptions.computeIfPresent(s.userId, (k, list) -> {
+      list.remove(s);
+      return list.isEmpty() ? null : list;
+    });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    heartbeats.shutdownNow();
+    for (List<Subscription> list : subscriptions.values()) {
+      for (Subscription s : list) {
+        s.emitter.complete();
+      }
+    }
+    senders.shutdown();
+  }
+
+  public final class Subscription {
+    private final UUID userId;
+    private final SseEmitter emitter;
+    private final ConcurrentLinkedQueue<StreamEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    // Filled by start(), then only touched by the drainer, which clears it after the first pass.
+    private Set<String> replayedIds = new HashSet<>();
+    private List<StreamEvent> replay = List.of();
+    private volatile boolean ready;
+    private volatile boolean closed;
+
+    private Subscription(UUID userId, SseEmitter emitter) {
+      this.userId = userId;
+      this.emitter = emitter;
+    }
+
+    public SseEmitter emitter() {
+      return emitter;
+    }
+
+    private void offer(StreamEvent event) {
+      if (closed) return;
+      if (size.incrementAndGet() > bufferSize) {
+        size.decrementAndGet();
+        // Slow consumer: drop the connection rather than grow without bound.
+        closed = true;
+        emitter.complete();
+        return;
+      }
+      queue.offer(event);
+      scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+      if (ready && !closed && draining.compareAndSet(false, true)) {
+        senders.execute(this::drain);
+      }
+    }
+
+    private void drain() {
+      try {
+        if (!replay.isEmpty()) {
+          List<StreamEvent> backlog = replay;
+          replay = List.of();
+          for (StreamEvent e : backlog) {
+            send(e);
+          }
+        }
+        StreamEvent e;
+        while (!closed && (e = queue.poll()) != null) {
+          size.decrementAndGet();
+          if (e.id() != null && replayedIds.contains(e.id())) continue;
+          send(e);
+        }
+        // Everything published before start() was queued ahead of this point.
+        if (!replayedIds.isEmpty()) {
+          replayedIds = Set.of();
+        }
+      } catch (IOException | IllegalStateException ex) {
+        closed = true;
+        emitter.completeWithError(ex);
+        return;
+      } finally {
+        draining.set(false);
+      }
+      if (!queue.isEmpty()) {
+        scheduleDrain();
+      }
+    }
+
+    private void send(StreamEvent e) throws IOException {
+      if (e == HEARTBEAT) {
+        emitter.send(SseEmitter.event().comment("heartbeat"));
+        return;
+      }
+      emitter.send(SseEmitter.event()
+          .id(e.id())
+          .name("notification")
+          .data(e.payload(), MediaType.APPLICATION_JSON));
+    }
+  }
+}
@@ -1,32 +1,77 @@
 package com.taskmgr.notif.web;
 
+import com.taskmgr.notif.model.DigestFrequency;
+import com.taskmgr.notif.model.NotificationDigestEntity;
+import com.taskmgr.notif.model.NotificationDigestRepository;
 import com.taskmgr.notif.model.NotificationEntity;
+import com.taskmgr.notif.model.NotificationReadMarkEntity;
+import com.taskmgr.notif.model.NotificationReadMarkRepository;
 import com.taskmgr.notif.model.NotificationRepository;
+import com.taskmgr.notif.model.NotificationRow;
+import com.taskmgr.notif.stream.NotificationStreamRegistry;
+import com.taskmgr.notif.stream.NotificationStreamRegistry.StreamEvent;
+import com.taskmgr.notif.stream.NotificationStreamRegistry.Subscription;
+import com.taskmgr.notif.write.GroupCommitWriter;
+import com.taskmgr.notif.write.NotificationWriter;
+import com.taskmgr.notif.write.NotificationWriter.NewNotification;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/notifications")
 public class NotificationController {
 
+  private static final OffsetDateTime NEVER_READ = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
   private final NotificationRepository notifications;
+  private final NotificationReadMarkRepository readMarks;
+  private final NotificationDigestRepository digests;
+  private final NotificationStreamRegistry streams;
+  private final NotificationWriter writer;
+  private final ObjectProvider<GroupCommitWriter> groupCommit;
+  private final int replayLimit;
 
-  public NotificationController(NotificationRepository notifications) {
+  public NotificationController(
+      NotificationRepository notifications,
+      NotificationReadMarkRepository readMarks,
+      NotificationDigestRepository digests,
+      NotificationStreamRegistry streams,
+      NotificationWriter writer,
+      ObjectProvider<GroupCommitWriter> groupCommit,
+      @Value("${app.stream.replayLimit:200}") int replayLimit
+  ) {
     this.notifications = notifications;
+    this.readMarks = readMarks;
+    this.digests = digests;
+    this.writer = writer;
+    this.groupCommit = groupCommit;
+    this.streams = streams;
+    this.replayLimit = replayLimit;
   }
 
   public record CreateNotificationRequest(
@@ -45,9 +90,17 @@ public class NotificationController {
       String refType,
       String refId,
       boolean read,
-      String createdAt
+      String createdAt,
+      int occurrences,
+      String lastOccurredAt
   ) {}
 
+  public record UnreadCountView(long unread, String readUpTo) {}
+
+  public record DigestSettingsRequest(@NotBlank String frequency) {}
+
+  public record DigestSettingsView(String frequency, String lastSentAt) {}
+
   private boolean isRoot(String raw) {
     return raw != null && raw.equalsIgnoreCase("true");
   }
@@ -60,23 +113,85 @@ public class NotificationController {
 
   @PostMapping
   @ResponseStatus(HttpStatus.CREATED)
-  public NotificationView create(@Valid @RequestBody CreateNotificationRequest request) {
-    NotificationEntity n = new NotificationEntity(
-        UUID.randomUUID(),
+  public CompletableFuture<NotificationView> create(@Valid @RequestBody CreateNotificationRequest request) {
+    NewNotification notification = new NewNotification(
         UUID.fromString(request.userId()),
         request.type(),
         request.message(),
         request.refType(),
-        request.refId(),
-        false,
-        OffsetDateTime.now()
+        request.refId()
     );
 
-    notifications.save(n);
+    GroupCommitWriter group = groupCommit.getIfAvailable();
+    CompletableFuture<NotificationEntity> stored = (group != null)
+        ? group.submit(notification)
+        : CompletableFuture.completedFuture(writer.write(notification));
+
+    return stored.thenApply(n -> {
+      NotificationView view = toView(n);
+      streams.publish(n.getUserId(), streamEvent(view));
+      return view;
+    });
+  }
+
+  /**
+   * Server-Sent Events stream of the caller's new notifications. Event ids are
+   * {@code <lastOccurredAt>|<id>}, so a coalesced row gets a new id each time it changes. On
+   * reconnect the browser sends {@code Last-Event-ID} and everything created or coalesced after
+   * that position is replayed from the database before live events. The position comes from the
+   * event id itself, not the row's current state, which may have moved on since it was sent.
+   */
+  @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter stream(
+      @RequestHeader("X-User-Id") String userId,
+      @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+      HttpServletResponse response
+  ) {
+    UUID uid = UUID.fromString(userId);
+    response.setHeader("Cache-Control", "no-cache");
+    response.setHeader("X-Accel-Buffering", "no");
+
+    Subscription subscription = streams.open(uid);
+    List<StreamEvent> replay;
+    try {
+      replay = replayAfter(uid, lastEventId);
+    } catch (RuntimeException ex) {
+      // Never started, so nothing would ever drain or close it.
+      streams.cancel(subscription);
+      throw ex;
+    }
+
+    streams.start(subscription, replay);
+    return subscription.emitter();
+  }
+
+  private List<StreamEvent> replayAfter(UUID uid, String lastEventId) {
+    if (lastEventId == null || lastEventId.isBlank()) {
+      return List.of();
+    }
+    String raw = lastEventId.trim();
+    int sep = raw.lastIndexOf('|');
+    OffsetDateTime after;
+    UUID afterId;
+    try {
+      after = OffsetDateTime.parse(raw.substring(0, sep));
+      afterId = UUID.fromString(raw.substring(sep + 1));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ignored) {
+      // Unknown event id format: start from live events only.
+      return List.of();
+    }
+    return notifications.findAfter(uid, after, afterId, PageRequest.of(0, replayLimit))
+        .stream()
+        .map(this::toView)
+        .map(NotificationController::streamEvent)
+        .toList();
+  }
 
-    return toView(n);
+  private static StreamEvent streamEvent(NotificationView view) {
+    return new StreamEvent(view.lastOccurredAt() + "|" + view.id(), view);
   }
 
+  @Transactional(readOnly = true)
   @GetMapping
   public List<NotificationView> list(
       @RequestHeader("X-User-Id") String userId,
@@ -88,11 +203,75 @@ public class NotificationController {
     if (isRoot(root) && forUserId != null && !forUserId.isBlank()) {
       uid = UUID.fromString(forUserId);
     }
-    List<NotificationEntity> rows = (unread != null)
-        ? notifications.findByUserIdAndIsReadOrderByCreatedAtDesc(uid, !unread)
-        : notifications.findByUserIdOrderByCreatedAtDesc(uid);
+    OffsetDateTime readUpTo = readUpTo(uid);
+    List<NotificationRow> rows;
+    if (unread == null) {
+      rows = notifications.findRows(uid);
+    } else if (unread) {
+      rows = notifications.findUnreadRows(uid, readUpTo);
+    } else {
+      rows = notifications.findReadRows(uid, readUpTo);
+    }
+
+    return rows.stream().map(n -> new NotificationView(
+        n.id().toString(),
+        n.userId().toString(),
+        n.type(),
+        n.message(),
+        n.refType(),
+        n.refId(),
+        n.read() || !n.lastOccurredAt().isAfter(readUpTo),
+        n.createdAt().toString(),
+        n.occurrences(),
+        n.lastOccurredAt().toString()
+    )).toList();
+  }
+
+  @GetMapping("/unread-count")
+  public UnreadCountView unreadCount(
+      @RequestHeader("X-User-Id") String userId,
+      @RequestHeader(value = "X-User-Root", required = false) String root,
+      @RequestParam(name = "userId", required = false) String forUserId
+  ) {
+    UUID uid = UUID.fromString(userId);
+    if (isRoot(root) && forUserId != null && !forUserId.isBlank()) {
+      uid = UUID.fromString(forUserId);
+    }
+    OffsetDateTime readUpTo = readUpTo(uid);
+    return new UnreadCountView(
+        notifications.countUnread(uid, readUpTo),
+        readUpTo == NEVER_READ ? null : readUpTo.toString()
+    );
+  }
+
+  /**
+   * Marks everything created up to {@code upTo} (default: now) as read by moving the
+   * caller's watermark. A single-row upsert, independent of how many notifications are unread.
+   */
+  @PostMapping("/read-all")
+  public UnreadCountView markAllRead(
+      @RequestHeader("X-User-Id") String userId,
+      @RequestHeader(value = "X-User-Root", required = false) String root,
+      @RequestParam(name = "upTo", required = false) String upTo
+  ) {
+    forbidIfRoot(root);
+    UUID uid = UUID.fromString(userId);
 
-    return rows.stream().map(this::toView).toList();
+    OffsetDateTime now = OffsetDateTime.now();
+    OffsetDateTime mark = now;
+    if (upTo != null && !upTo.isBlank()) {
+      try {
+        mark = OffsetDateTime.parse(upTo);
+      } catch (DateTimeParseException ex) {
+        throw new WebException(HttpStatus.BAD_REQUEST, "Invalid upTo (use ISO-8601 timestamp)");
+      }
+      if (mark.isAfter(now)) {
+        mark = now;
+      }
+    }
+
+    readMarks.advance(uid, mark);
+    return unreadCount(userId, root, null);
   }
 
   @PatchMapping("/{id}/read")
@@ -110,12 +289,60 @@ public class NotificationController {
       throw new WebException(HttpStatus.FORBIDDEN, "Not allowed");
     }
 
-    n.markRead();
-    notifications.save(n);
-    return toView(n);
+    OffsetDateTime readUpTo = readUpTo(uid);
+    if (!n.isRead() && n.getLastOccurredAt().isAfter(readUpTo)) {
+      n.markRead();
+      notifications.save(n);
+    }
+    return toView(n, readUpTo);
+  }
+
+  @GetMapping("/digest")
+  public DigestSettingsView getDigestSettings(@RequestHeader("X-User-Id") String userId) {
+    UUID uid = UUID.fromString(userId);
+    return digests.findById(uid)
+        .map(d -> new DigestSettingsView(d.getFrequency().name(), d.getLastSentAt() == null ? null : d.getLastSentAt().toString()))
+        .orElse(new DigestSettingsView(DigestFrequency.DAILY.name(), null));
+  }
+
+  @PutMapping("/digest")
+  public DigestSettingsView updateDigestSettings(
+      @RequestHeader("X-User-Id") String userId,
+      @RequestHeader(value = "X-User-Root", required = false) String root,
+      @Valid @RequestBody DigestSettingsRequest request
+  ) {
+    forbidIfRoot(root);
+    UUID uid = UUID.fromString(userId);
+
+    DigestFrequency frequency;
+    try {
+      frequency = DigestFrequency.valueOf(request.frequency().trim().toUpperCase());
+    } catch (IllegalArgumentException ex) {
+      throw new WebException(HttpStatus.BAD_REQUEST, "Frequency must be HOURLY, DAILY or OFF");
+    }
+
+    NotificationDigestEntity settings = digests.findById(uid)
+        .orElseGet(() -> new NotificationDigestEntity(uid, frequency));
+    settings.setFrequency(frequency);
+    digests.save(settings);
+
+    return new DigestSettingsView(
+        settings.getFrequency().name(),
+        settings.getLastSentAt() == null ? null : settings.getLastSentAt().toString()
+    );
+  }
+
+  private OffsetDateTime readUpTo(UUID userId) {
+    return readMarks.findById(userId)
+        .map(NotificationReadMarkEntity::getReadUpTo)
+        .orElse(NEVER_READ);
   }
 
   private NotificationView toView(NotificationEntity n) {
+    return toView(n, NEVER_READ);
+  }
+
+  private NotificationView toView(NotificationEntity n, OffsetDateTime readUpTo) {
     return new NotificationView(
         n.getId().toString(),
         n.getUserId().toString(),
@@ -123,8 +350,10 @@ public class NotificationController {
         n.getMessage(),
         n.getRefType(),
         n.getRefId(),
-        n.isRead(),
-        n.getCreatedAt().toString()
+        n.isRead() || !n.getLastOccurredAt().isAfter(readUpTo),
+        n.getCreatedAt().toString(),
+        n.getOccurrences(),
+        n.getLastOccurredAt().toString()
     );
   }
 }
@@ -0,0 +1,141 @@
+package com.taskmgr.notif.write;
+
+import com.taskmgr.notif.model.NotificationEntity;
+import com.taskmgr.notif.web.WebException;
+import com.taskmgr.notif.write.NotificationWriter.NewNotification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Group commit for notification inserts. Callers enqueue and get a future; a single writer
+ * thread drains the queue into batches (up to {@code maxBatchSize}, or whatever arrived within
+ * {@code maxDelayMillis} of the first entry) and commits each batch as one multi-row insert, so
+ * a burst pays for one fsync instead of one per notification.
+ */
+@Component
+@ConditionalOnProperty(name = "app.groupCommit.enabled", havingValue = "true")
+public class GroupCommitWriter {
+
+  private record Pending(NewNotification notification, CompletableFuture<NotificationEntity> result) {}
+
+  private final NotificationWriter writer;
+  private final BlockingQueue<Pending> queue;
+  private final int maxBatchSize;
+  private final long maxDelayNanos;
+  private final Timer flushTimer;
+  private final DistributionSummary batchSizes;
+  private final Counter rejected;
+  private final Thread thread;
+  private volatile boolean running = true;
+
+  public GroupCommitWriter(
+      NotificationWriter writer,
+      MeterRegistry meters,
+      @Value("${app.groupCommit.queueCapacity:10000}") int queueCapacity,
+      @Value("${app.groupCommit.maxBatchSize:256}") int maxBatchSize,
+      @Value("${app.groupCommit.maxDelayMillis:5}") long maxDelayMillis
+  ) {
+    this.writer = writer;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.maxBatchSize = maxBatchSize;
+    this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    this.flushTimer = Timer.builder("notifications.group_commit.flush")
+        .description("Time to insert and commit one batch")
+        .publishPercentiles(0.5, 0.99)
+        .register(meters);
+    this.batchSizes = DistributionSummary.builder("notifications.group_commit.batch_size")
+        .description("Notifications per committed batch")
+        .register(meters);
+    this.rejected = Counter.builder("notifications.group_commit.rejected")
+        .description("Creates rejected because the queue was full")
+        .register(meters);
+    Gauge.builder("notifications.group_commit.queue_depth", queue, BlockingQueue::size).register(meters);
+    this.thread = new Thread(this::run, "notif-group-commit");
+  }
+
+  @PostConstruct
+  public void start() {
+    thread.start();
+  }
+
+  /** Completes once the batch holding this notification has committed. */
+  public CompletableFuture<NotificationEntity> submit(NewNotification notification) {
+    Pending p = new Pending(notification, new CompletableFuture<>());
+    if (!running || !queue.offer(p)) {
+      rejected.increment();
+      throw new WebException(HttpStatus.SERVICE_UNAVAILABLE, "Notification queue is full");
+    }
+    return p.result();
+  }
+
+  private void run() {
+    List<Pending> batch = new ArrayList<>(maxBatchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) continue;
+        batch.add(first);
+
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+          queue.drainTo(batch, maxBatchSize - batch.size());
+          long remaining = deadline - System.nanoTime();
+          if (batch.size() >= maxBatchSize || remaining <= 0) break;
+          Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+          if (next == null) break;
+          batch.add(next);
+        }
+
+        flush(batch);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        running = false;
+        queue.drainTo(batch);
+        for (Pending p : batch) {
+          p.result().completeExceptionally(new WebException(HttpStatus.SERVICE_UNAVAILABLE, "Shutting down"));
+        }
+        return;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void flush(List<Pending> batch) {
+    long start = System.nanoTime();
+    try {
+      List<NotificationEntity> stored = writer.writeBatch(batch.stream().map(Pending::notification).toList());
+      for (int i = 0; i < batch.size(); i++) {
+        batch.get(i).result().complete(stored.get(i));
+      }
+    } catch (RuntimeException ex) {
+      for (Pending p : batch) {
+        p.result().completeExceptionally(ex);
+      }
+    } finally {
+      flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      batchSizes.record(batch.size());
+    }
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    running = false;
+    thread.join(TimeUnit.SECONDS.toMillis(10));
+  }
+}
@@ -0,0 +1,205 @@
+package com.taskmgr.notif.write;
+
+import com.taskmgr.notif.model.NotificationEntity;
+import com.taskmgr.notif.model.NotificationRepository;
+import java.sql.Connection;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class NotificationWriter {
+
+  public record NewNotification(UUID userId, String type, String message, String refType, String refId) {}
+
+  private record CoalesceKey(UUID userId, String type, String refType, String refId) {}
+
+  private static final class Row {
+    final UUID id = UUID.randomUUID();
+    final NewNotification n;
+    final CoalesceKey key;
+    int occurrences = 1;
+    String message;
+
+    Row(NewNotification n, CoalesceKey key) {
+      this.n = n;
+      this.key = key;
+      this.message = n.message();
+    }
+  }
+
+  // Multi-row variant of NotificationRepository.upsertCoalesced: one statement for the whole
+  // batch, with the rows passed as parallel arrays.
+  private static final String BATCH_UPSERT = """
+      insert into notifications
+        (id, user_id, type, message, ref_type, ref_id, is_read, created_at, last_occurred_at, occurrences, coalescible)
+      select t.id, t.user_id, t.type, t.message, t.ref_type, t.ref_id, false, ?, ?, t.occurrences,
+             (? and t.ref_type is not null and t.ref_id is not null)
+      from unnest(?::uuid[], ?::uuid[], ?::text[], ?::text[], ?::text[], ?::text[], ?::int4[])
+        as t(id, user_id, type, message, ref_type, ref_id, occurrences)
+      on conflict (user_id, type, ref_type, ref_id) where is_read = false and coalescible
+      do update set
+        occurrences = notifications.occurrences + excluded.occurrences,
+        message = excluded.message,
+        last_occurred_at = excluded.last_occurred_at
+      where notifications.last_occurred_at >= ?
+        and notifications.last_occurred_at > coalesce(
+          (select m.read_up_to from notification_read_marks m where m.user_id = notifications.user_id),
+          cast('-infinity' as timestamptz))
+      returning id, user_id, type, ref_type, ref_id
+      """;
+
+  private final NotificationRepository notifications;
+  private final JdbcTemplate jdbc;
+  private final int coalesceWindowMinutes;
+
+  public NotificationWriter(
+      NotificationRepository notifications,
+      JdbcTemplate jdbc,
+      @Value("${app.coalesce.windowMinutes:30}") int coalesceWindowMinutes
+  ) {
+    this.notifications = notifications;
+    this.jdbc = jdbc;
+    this.coalesceWindowMinutes = coalesceWindowMinutes;
+  }
+
+  /**
+   * Stores a notification. Notifications that point at a reference are coalesced into the
+   * user's open unread row for the same (type, ref) if it fired within the window; the returned
+   * entity is then that row with its occurrence count bumped.
+   */
+  @Transactional
+  public NotificationEntity write(NewNotification n) {
+    OffsetDateTime now = OffsetDateTime.now();
+
+    if (coalesceWindowMinutes <= 0 || n.refType() == null || n.refId() == null) {
+      return notifications.save(new NotificationEntity(
+          UUID.randomUUID(), n.userId(), n.type(), n.message(), n.refType(), n.refId(), false, now));
+    }
+
+    OffsetDateTime windowStart = now.minus(coalesceWindowMinutes, ChronoUnit.MINUTES);
+    for (int attempt = 0; attempt < 2; attempt++) {
+      List<NotificationEntity> rows = notifications.upsertCoalesced(
+          UUID.randomUUID(), n.userId(), n.type(), n.message(), n.refType(), n.refId(), now, windowStart);
+      if (!rows.isEmpty()) {
+        return rows.get(0);
+      }
+      // The open row is stale (outside the window or already covered by the read watermark):
+      // retire it from coalescing so the retry inserts a fresh row.
+      notifications.closeCoalescing(n.userId(), n.type(), n.refType(), n.refId());
+    }
+
+    return notifications.save(new NotificationEntity(
+        UUID.randomUUID(), n.userId(), n.type(), n.message(), n.refType(), n.refId(), false, now));
+  }
+
+  /**
+   * Stores a batch in one transaction and returns the resulting rows in input order. Entries
+   * that share a coalescing key are merged in memory first, since a single upsert statement may
+   * not touch the same row twice.
+   */
+  @Transactional
+  public List<NotificationEntity> writeBatch(List<NewNotification> batch) {
+    OffsetDateTime now = OffsetDateTime.now();
+    boolean coalesce = coalesceWindowMinutes > 0;
+    OffsetDateTime windowStart = now.minus(Math.max(coalesceWindowMinutes, 0), ChronoUnit.MINUTES);
+
+    Map<Object, Row> rows = new LinkedHashMap<>();
+    List<Row> rowPerInput = new ArrayList<>(batch.size());
+    for (NewNotification n : batch) {
+      boolean keyed = coalesce && n.refType() != null && n.refId() != null;
+      CoalesceKey key = keyed ? new CoalesceKey(n.userId(), n.type(), n.refType(), n.refId()) : null;
+      Row row = keyed ? rows.get(key) : null;
+      if (row == null) {
+        row = new Row(n, key);
+        rows.put(keyed ? key : row.id, row);
+      } else {
+        row.occurrences++;
+        row.message = n.message();
+      }
+      rowPerInput.add(row);
+    }
+
+    Map<Row, UUID> resolved = new HashMap<>();
+    List<Row> pending = new ArrayList<>(rows.values());
+    for (int attempt = 0; attempt < 2 && !pending.isEmpty(); attempt++) {
+      Map<CoalesceKey, UUID> byKey = upsert(pending, now, windowStart, coalesce);
+      List<Row> stale = new ArrayList<>();
+      for (Row row : pending) {
+        if (row.key == null) {
+          resolved.put(row, row.id);
+        } else if (byKey.containsKey(row.key)) {
+          resolved.put(row, byKey.get(row.key));
+        } else {
+          // Open row outside the window: retire it and insert this one fresh on the next pass.
+          notifications.closeCoalescing(row.key.userId(), row.key.type(), row.key.refType(), row.key.refId());
+          stale.add(row);
+        }
+      }
+      pending = stale;
+    }
+    for (Row row : pending) {
+      NotificationEntity saved = notifications.save(new NotificationEntity(
+          row.id, row.n.userId(), row.n.type(), row.message, row.n.refType(), row.n.refId(), false, now));
+      resolved.put(row, saved.getId());
+    }
+
+    Map<UUID, NotificationEntity> byId = new HashMap<>();
+    for (NotificationEntity e : notifications.findAllById(resolved.values())) {
+      byId.put(e.getId(), e);
+    }
+    return rowPerInput.stream().map(r -> byId.get(resolved.get(r))).toList();
+  }
+
+  private Map<CoalesceKey, UUID> upsert(List<Row> rows, OffsetDateTime now, OffsetDateTime windowStart, boolean coalesce) {
+    int size = rows.size();
+    Object[] ids = new Object[size];
+    Object[] userIds = new Object[size];
+    Object[] types = new Object[size];
+    Object[] messages = new Object[size];
+    Object[] refTypes = new Object[size];
+    Object[] refIds = new Object[size];
+    Object[] occurrences = new Object[size];
+    for (int i = 0; i < size; i++) {
+      Row row = rows.get(i);
+      ids[i] = row.id;
+      userIds[i] = row.n.userId();
+      types[i] = row.n.type();
+      messages[i] = row.message;
+      refTypes[i] = row.n.refType();
+      refIds[i] = row.n.refId();
+      occurrences[i] = row.occurrences;
+    }
+
+    Map<CoalesceKey, UUID> byKey = new HashMap<>();
+    jdbc.query(BATCH_UPSERT, ps -> {
+      Connection con = ps.getConnection();
+      ps.setObject(1, now);
+      ps.setObject(2, now);
+      ps.setBoolean(3, coalesce);
+      ps.setArray(4, con.createArrayOf("uuid", ids));
+      ps.setArray(5, con.createArrayOf("uuid", userIds));
+      ps.setArray(6, con.createArrayOf("text", types));
+      ps.setArray(7, con.createArrayOf("text", messages));
+      ps.setArray(8, con.createArrayOf("text", refTypes));
+      ps.setArray(9, con.createArrayOf("text", refIds));
+      ps.setArray(10, con.createArrayOf("int4", occurrences));
+      ps.setObject(11, windowStart);
+    }, rs -> {
+      byKey.put(
+          new CoalesceKey(rs.getObject("user_id", UUID.class), rs.getString("type"), rs.getString("ref_type"), rs.getString("ref_id")),
+          rs.getObject("id", UUID.class)
+      );
+    });
+    return byKey;
+  }
+}
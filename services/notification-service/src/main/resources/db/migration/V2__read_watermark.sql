@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS notification_read_marks (
+  user_id UUID PRIMARY KEY,
+  read_up_to TIMESTAMPTZ NOT NULL,
+  updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created ON notifications(user_id, created_at DESC);
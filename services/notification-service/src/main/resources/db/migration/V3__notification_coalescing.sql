@@ -0,0 +1,18 @@
+ALTER TABLE notifications
+  ADD COLUMN IF NOT EXISTS occurrences INT NOT NULL DEFAULT 1,
+  ADD COLUMN IF NOT EXISTS last_occurred_at TIMESTAMPTZ,
+  ADD COLUMN IF NOT EXISTS coalescible BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE notifications SET last_occurred_at = created_at WHERE last_occurred_at IS NULL;
+
+ALTER TABLE notifications
+  ALTER COLUMN last_occurred_at SET NOT NULL,
+  ALTER COLUMN last_occurred_at SET DEFAULT now();
+
+-- At most one open (unread, coalescible) row per reference; the arbiter for ON CONFLICT upserts.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_notifications_coalesce
+  ON notifications(user_id, type, ref_type, ref_id)
+  WHERE is_read = false AND coalescible;
+
+DROP INDEX IF EXISTS idx_notifications_user_created;
+CREATE INDEX IF NOT EXISTS idx_notifications_user_last ON notifications(user_id, last_occurred_at DESC);
@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS notification_digests (
+  user_id UUID PRIMARY KEY,
+  frequency TEXT NOT NULL DEFAULT 'DAILY',
+  digested_up_to TIMESTAMPTZ,
+  last_sent_at TIMESTAMPTZ
+);
+
+-- Digest scan: unread rows grouped by user.
+CREATE INDEX IF NOT EXISTS idx_notifications_unread_user_last
+  ON notifications(user_id, last_occurred_at)
+  WHERE is_read = false;
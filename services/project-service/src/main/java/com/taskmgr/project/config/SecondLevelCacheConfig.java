@@ -0,0 +1,73 @@
+package com.taskmgr.project.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate second-level and query cache regions, backed by Caffeine through JCache. Every region
+ * is created here with its own size and TTL; Hibernate is set to fail on any region it would
+ * otherwise create implicitly. Writes through JPA keep the regions consistent. {@code MemberBatchWriter}
+ * inserts members with plain JDBC, so no query over {@code organization_members} is cacheable.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+  public static final String ORGANIZATIONS = "project.organizations";
+  public static final String PROJECTS = "project.projects";
+  public static final String ORGANIZATION_MEMBERS = "project.organization_members";
+  private static final String QUERY_RESULTS = "default-query-results-region";
+  private static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+  @Bean(destroyMethod = "close")
+  public CacheManager hibernateCacheManager(
+      @Value("${app.l2cache.organizations.maxSize:10000}") long orgsMaxSize,
+      @Value("${app.l2cache.organizations.ttlSeconds:600}") long orgsTtlSeconds,
+      @Value("${app.l2cache.projects.maxSize:50000}") long projectsMaxSize,
+      @Value("${app.l2cache.projects.ttlSeconds:600}") long projectsTtlSeconds,
+      @Value("${app.l2cache.members.maxSize:100000}") long membersMaxSize,
+      @Value("${app.l2cache.members.ttlSeconds:300}") long membersTtlSeconds,
+      @Value("${app.l2cache.queries.maxSize:10000}") long queriesMaxSize,
+      @Value("${app.l2cache.queries.ttlSeconds:300}") long queriesTtlSeconds
+  ) {
+    CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+    CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+    create(cacheManager, ORGANIZATIONS, orgsMaxSize, orgsTtlSeconds);
+    create(cacheManager, PROJECTS, projectsMaxSize, projectsTtlSeconds);
+    create(cacheManager, ORGANIZATION_MEMBERS, membersMaxSize, membersTtlSeconds);
+    create(cacheManager, QUERY_RESULTS, queriesMaxSize, queriesTtlSeconds);
+    // Table timestamps decide whether cached query results are still valid; they must outlive
+    // every query result, so this region is neither size- nor time-bounded.
+    create(cacheManager, UPDATE_TIMESTAMPS, 0, 0);
+    return cacheManager;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+    return props -> {
+      props.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+      props.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+    };
+  }
+
+  private static void create(CacheManager cacheManager, String region, long maxSize, long ttlSeconds) {
+    CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+    if (maxSize > 0) {
+      config.setMaximumSize(OptionalLong.of(maxSize));
+    }
+    if (ttlSeconds > 0) {
+      config.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+    }
+    config.setStatisticsEnabled(true);
+    cacheManager.createCache(region, config);
+  }
+}
@@ -0,0 +1,97 @@
+package com.taskmgr.project.config;
+
+import com.taskmgr.project.invalidation.InvalidationBus;
+import com.taskmgr.project.orgs.MembershipCache;
+import com.taskmgr.project.orgs.OrganizationEntity;
+import com.taskmgr.project.orgs.OrganizationMemberEntity;
+import com.taskmgr.project.projects.ProjectEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.UUID;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * The second-level cache is local to each instance. Writes to organizations and projects are
+ * published on the {@link InvalidationBus} so other instances drop the entity and their cached
+ * query results; membership changes reuse the existing membership topics.
+ */
+@Component
+public class SecondLevelCacheInvalidation
+    implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+  private static final String TOPIC_ENTITY = "l2";
+
+  private final EntityManagerFactory emf;
+  private final InvalidationBus bus;
+
+  public SecondLevelCacheInvalidation(EntityManagerFactory emf, InvalidationBus bus) {
+    this.emf = emf;
+    this.bus = bus;
+  }
+
+  @PostConstruct
+  void register() {
+    SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+    EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+    listeners.appendListeners(EventType.POST_INSERT, this);
+    listeners.appendListeners(EventType.POST_UPDATE, this);
+    listeners.appendListeners(EventType.POST_DELETE, this);
+
+    Cache cache = sessionFactory.getCache();
+    bus.register(TOPIC_ENTITY, args -> {
+      cache.evictEntityData(args[0], UUID.fromString(args[1]));
+      cache.evictDefaultQueryRegion();
+    }, cache::evictAllRegions);
+    bus.register(MembershipCache.TOPIC_MEMBER, args -> cache.evictEntityData(
+        OrganizationMemberEntity.class,
+        new OrganizationMemberEntity.Pk(UUID.fromString(args[0]), UUID.fromString(args[1]))
+    ), cache::evictAllRegions);
+    bus.register(MembershipCache.TOPIC_ORG, args -> {
+      if (args.length == 1) {
+        cache.evictEntityData(OrganizationMemberEntity.class);
+        return;
+      }
+      UUID orgId = UUID.fromString(args[0]);
+      for (int i = 1; i < args.length; i++) {
+        cache.evictEntityData(OrganizationMemberEntity.class, new OrganizationMemberEntity.Pk(orgId, UUID.fromString(args[i])));
+      }
+    }, cache::evictAllRegions);
+  }
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    publish(event.getEntity(), event.getId());
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    publish(event.getEntity(), event.getId());
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    publish(event.getEntity(), event.getId());
+  }
+
+  private void publish(Object entity, Object id) {
+    if (entity instanceof ProjectEntity || entity instanceof OrganizationEntity) {
+      bus.publish(TOPIC_ENTITY, entity.getClass().getName(), id.toString());
+    }
+  }
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    return false;
+  }
+}
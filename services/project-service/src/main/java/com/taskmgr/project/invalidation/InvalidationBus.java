@@ -0,0 +1,204 @@
+package com.taskmgr.project.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cross-instance cache invalidation over Postgres LISTEN/NOTIFY.
+ *
+ * <p>Messages are {@code <topic>|<arg>|<arg>...}. {@link #publish} issues {@code pg_notify} on
+ * the caller's connection, so the message is delivered only if (and when) the surrounding
+ * transaction commits. Every instance, including the publisher, holds one dedicated listener
+ * connection and applies incoming messages to its local caches. After the listener reconnects,
+ * messages may have been missed, so every registered cache is flushed.
+ */
+@Component
+public class InvalidationBus {
+
+  private record Handler(Consumer<String[]> onMessage, Runnable onFlush) {}
+
+  private final JdbcTemplate jdbc;
+  private final Map<String, List<Handler>> handlers = new ConcurrentHashMap<>();
+  private final List<Runnable> flushes = new CopyOnWriteArrayList<>();
+  private final Counter received;
+  private final Counter reconnects;
+
+  private final boolean enabled;
+  private final String channel;
+  private final String url;
+  private final String username;
+  private final String password;
+  private final int idleCheckMillis;
+
+  private volatile boolean running = true;
+  private volatile Connection listenerConnection;
+  private Thread listener;
+
+  public InvalidationBus(
+      JdbcTemplate jdbc,
+      MeterRegistry meters,
+      @Value("${app.invalidation.enabled:true}") boolean enabled,
+      @Value("${app.invalidation.channel:cache_invalidation}") String channel,
+      @Value("${app.invalidation.idleCheckSeconds:10}") int idleCheckSeconds,
+      @Value("${spring.datasource.url}") String url,
+      @Value("${spring.datasource.username}") String username,
+      @Value("${spring.datasource.password}") String password
+  ) {
+    this.jdbc = jdbc;
+    this.enabled = enabled;
+    this.channel = channel;
+    this.idleCheckMillis = idleCheckSeconds * 1000;
+    this.url = url;
+    this.username = username;
+    this.password = password;
+    this.received = Counter.builder("cache.invalidation.received").register(meters);
+    this.reconnects = Counter.builder("cache.invalidation.reconnects").register(meters);
+  }
+
+  /**
+   * Registers a local handler for {@code topic}; several caches may listen on the same topic.
+   * {@code onFlush} must drop the whole cache.
+   */
+  public void register(String topic, Consumer<String[]> onMessage, Runnable onFlush) {
+    handlers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(new Handler(onMessage, onFlush));
+    flushes.add(onFlush);
+  }
+
+  /**
+   * Publishes an invalidation. Inside a transaction it is sent on commit by Postgres and also
+   * applied locally after commit; outside one it is sent and applied immediately.
+   */
+  public void publish(String topic, String... args) {
+    String message = topic + "|" + String.join("|", args);
+    if (enabled) {
+      jdbc.query("select pg_notify(?, ?)", (RowCallbackHandler) rs -> {}, channel, message);
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          dispatch(message);
+        }
+      });
+    } else {
+      dispatch(message);
+    }
+  }
+
+  private void dispatch(String message) {
+    String[] parts = message.split("\\|", -1);
+    List<Handler> topicHandlers = handlers.get(parts[0]);
+    if (topicHandlers == null) return;
+    String[] args = new String[parts.length - 1];
+    System.arraycopy(parts, 1, args, 0, args.length);
+    for (Handler handler : topicHandlers) {
+      try {
+        handler.onMessage().accept(args);
+      } catch (RuntimeException ex) {
+        // Malformed message: fall back to dropping that cache entirely.
+        handler.onFlush().run();
+      }
+    }
+  }
+
+  private void flushAll() {
+    for (Runnable flush : flushes) {
+      flush.run();
+    }
+  }
+
+  @PostConstruct
+  public void start() {
+    if (!enabled) return;
+    listener = new Thread(this::listen, "cache-invalidation-listener");
+    listener.setDaemon(true);
+    listener.start();
+  }
+
+  private void listen() {
+    long backoffMillis = 500;
+    boolean firstConnect = true;
+    while (running) {
+      try (Connection con = DriverManager.getConnection(url, username, password)) {
+        listenerConnection = con;
+        try (Statement st = con.createStatement()) {
+          st.execute("LISTEN " + channel);
+        }
+        if (!firstConnect) {
+          reconnects.increment();
+          flushAll();
+        }
+        firstConnect = false;
+        backoffMillis = 500;
+
+        PGConnection pg = con.unwrap(PGConnection.class);
+        while (running) {
+          PGNotification[] notifications = pg.getNotifications(idleCheckMillis);
+          if (notifications == null || notifications.length == 0) {
+            // Idle: make sure the connection is still alive, otherwise we'd wait forever.
+            try (Statement st = con.createStatement()) {
+              st.execute("SELECT 1");
+            }
+            continue;
+          }
+          for (PGNotification n : notifications) {
+            received.increment();
+            dispatch(n.getParameter());
+          }
+        }
+      } catch (SQLException ex) {
+        if (!running) return;
+        // Lost the connection (or never got one): anything published meanwhile is gone.
+        flushAll();
+        sleep(backoffMillis);
+        backoffMillis = Math.min(backoffMillis * 2, 30_000);
+      } finally {
+        listenerConnection = null;
+      }
+    }
+  }
+
+  private void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+
+  @PreDestroy
+  public void stop() {
+    running = false;
+    Connection con = listenerConnection;
+    if (con != null) {
+      try {
+        con.close();
+      } catch (SQLException ignored) {
+        // shutting down
+      }
+    }
+    if (listener != null) {
+      listener.interrupt();
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.taskmgr.project.orgs;
+
+import java.sql.Connection;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+public class MemberBatchWriter {
+
+  // One statement for the whole batch; rows that already exist (e.g. added concurrently)
+  // are skipped and left out of the returned ids.
+  private static final String BATCH_INSERT = """
+      insert into organization_members (org_id, user_id, role, created_at)
+      select ?, t.user_id, ?, ?
+      from unnest(?::uuid[]) as t(user_id)
+      on conflict (org_id, user_id) do nothing
+      returning user_id
+      """;
+
+  /** Outcome of {@link #addMissing}: roles of users who were already members, and who was added. */
+  public record BulkAdd(Map<UUID, String> existingRoles, Set<UUID> inserted) {}
+
+  private final JdbcTemplate jdbc;
+  private final OrganizationMemberRepository members;
+  private final MembershipCache membership;
+
+  public MemberBatchWriter(JdbcTemplate jdbc, OrganizationMemberRepository members, MembershipCache membership) {
+    this.jdbc = jdbc;
+    this.members = members;
+    this.membership = membership;
+  }
+
+  /**
+   * Adds every candidate that isn't a member yet with {@code role}: one IN query for the existing
+   * members, one insert for the rest. Only this runs in the transaction; callers resolve users
+   * (remote lookups included) before calling it.
+   */
+  @Transactional
+  public BulkAdd addMissing(UUID orgId, Collection<UUID> candidates, String role) {
+    if (candidates.isEmpty()) {
+      return new BulkAdd(Map.of(), Set.of());
+    }
+    Map<UUID, String> existingRoles = members.findByOrgIdAndUserIdIn(orgId, candidates).stream()
+        .collect(Collectors.toMap(OrganizationMemberEntity::getUserId, OrganizationMemberEntity::getRole));
+
+    List<UUID> toInsert = candidates.stream().filter(id -> !existingRoles.containsKey(id)).toList();
+    Set<UUID> inserted = insert(orgId, toInsert, role);
+    if (!inserted.isEmpty()) {
+      // Batched: a handful of messages naming the added users, not one per member.
+      membership.invalidateOrg(orgId, inserted);
+    }
+    return new BulkAdd(existingRoles, inserted);
+  }
+
+  /** Inserts the users with the given role and returns the ids that were actually added. */
+  public Set<UUID> insert(UUID orgId, Collection<UUID> userIds, String role) {
+    Set<UUID> inserted = new HashSet<>();
+    if (userIds.isEmpty()) {
+      return inserted;
+    }
+    OffsetDateTime now = OffsetDateTime.now();
+    jdbc.query(BATCH_INSERT, ps -> {
+      Connection con = ps.getConnection();
+      ps.setObject(1, orgId);
+      ps.setString(2, role);
+      ps.setObject(3, now);
+      ps.setArray(4, con.createArrayOf("uuid", userIds.toArray()));
+    }, rs -> {
+      inserted.add(rs.getObject("user_id", UUID.class));
+    });
+    return inserted;
+  }
+}
@@ -0,0 +1,10 @@
+package com.taskmgr.project.orgs;
+
+import java.util.UUID;
+
+/** Read-only roster row for the paginated member listing. */
+public interface MemberRow {
+  UUID getOrgId();
+  UUID getUserId();
+  String getRole();
+}
@@ -0,0 +1,139 @@
+package com.taskmgr.project.orgs;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.taskmgr.project.invalidation.InvalidationBus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of {@code (orgId, userId) -> role} used for authorization checks. Entries load
+ * on demand from {@code organization_members}; non-members are cached too (with a shorter TTL).
+ * Writers must call {@link #invalidate} / {@link #invalidateOrg} when changing memberships; that
+ * evicts the entry on every instance through the {@link InvalidationBus}. The TTL only bounds
+ * staleness if an invalidation is missed.
+ */
+@Component
+public class MembershipCache {
+
+  private record Key(UUID orgId, UUID userId) {}
+
+  public static final String TOPIC_MEMBER = "member";
+  /**
+   * {@code org|<orgId>|<userId>...}: memberships of the listed users changed. With no user ids the
+   * change is org-wide and listeners must assume any user may be affected.
+   */
+  public static final String TOPIC_ORG = "org";
+
+  // pg_notify payloads are capped at 8000 bytes; 100 ids keep each message well below that.
+  private static final int USERS_PER_MESSAGE = 100;
+
+  private final OrganizationMemberRepository members;
+  private final InvalidationBus bus;
+  private final Cache<Key, Optional<String>> roles;
+
+  public MembershipCache(
+      OrganizationMemberRepository members,
+      InvalidationBus bus,
+      MeterRegistry meters,
+      @Value("${app.membershipCache.maxSize:100000}") long maxSize,
+      @Value("${app.membershipCache.ttlSeconds:60}") long ttlSeconds,
+      @Value("${app.membershipCache.negativeTtlSeconds:10}") long negativeTtlSeconds
+  ) {
+    this.members = members;
+    this.bus = bus;
+    long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+    long negativeTtlNanos = Duration.ofSeconds(negativeTtlSeconds).toNanos();
+    this.roles = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfter(new Expiry<Key, Optional<String>>() {
+          @Override
+          public long expireAfterCreate(Key key, Optional<String> role, long currentTime) {
+            return role.isPresent() ? ttlNanos : negativeTtlNanos;
+          }
+
+          @Override
+          public long expireAfterUpdate(Key key, Optional<String> role, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, role, currentTime);
+          }
+
+          @Override
+          public long expireAfterRead(Key key, Optional<String> role, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meters, roles, "membership");
+
+    bus.register(TOPIC_MEMBER, args -> roles.invalidate(new Key(UUID.fromString(args[0]), UUID.fromString(args[1]))), roles::invalidateAll);
+    bus.register(TOPIC_ORG, this::onOrgMessage, roles::invalidateAll);
+  }
+
+  /** The user's role in the org, or empty if they are not a member. */
+  public Optional<String> role(UUID orgId, UUID userId) {
+    return roles.get(new Key(orgId, userId), k ->
+        members.findByOrgIdAndUserId(k.orgId(), k.userId()).map(OrganizationMemberEntity::getRole));
+  }
+
+  public boolean isMember(UUID orgId, UUID userId) {
+    return role(orgId, userId).isPresent();
+  }
+
+  /** Evicts the entry locally now and on all instances once the current transaction commits. */
+  public void invalidate(UUID orgId, UUID userId) {
+    roles.invalidate(new Key(orgId, userId));
+    bus.publish(TOPIC_MEMBER, orgId.toString(), userId.toString());
+  }
+
+  /**
+   * Like {@link #invalidate} for many users of one org, in as few messages as the payload limit
+   * allows. An empty {@code userIds} invalidates the whole org.
+   */
+  public void invalidateOrg(UUID orgId, Collection<UUID> userIds) {
+    if (userIds.isEmpty()) {
+      evictOrg(orgId);
+      bus.publish(TOPIC_ORG, orgId.toString());
+      return;
+    }
+    List<String> args = new ArrayList<>(USERS_PER_MESSAGE + 1);
+    for (UUID userId : userIds) {
+      roles.invalidate(new Key(orgId, userId));
+      if (args.isEmpty()) {
+        args.add(orgId.toString());
+      }
+      args.add(userId.toString());
+      if (args.size() > USERS_PER_MESSAGE) {
+        bus.publish(TOPIC_ORG, args.toArray(String[]::new));
+        args.clear();
+      }
+    }
+    if (!args.isEmpty()) {
+      bus.publish(TOPIC_ORG, args.toArray(String[]::new));
+    }
+  }
+
+  private void onOrgMessage(String[] args) {
+    UUID orgId = UUID.fromString(args[0]);
+    if (args.length == 1) {
+      evictOrg(orgId);
+      return;
+    }
+    for (int i = 1; i < args.length; i++) {
+      roles.invalidate(new Key(orgId, UUID.fromString(args[i])));
+    }
+  }
+
+  private void evictOrg(UUID orgId) {
+    roles.asMap().keySet().removeIf(k -> k.orgId().equals(orgId));
+  }
+}
@@ -0,0 +1,6 @@
+package com.taskmgr.project.orgs;
+
+import java.util.UUID;
+
+/** Read-only projection of an organization for list endpoints. */
+public record OrgSummary(UUID id, String name) {}
@@ -1,5 +1,7 @@
 package com.taskmgr.project.orgs;
 
+import com.taskmgr.project.config.SecondLevelCacheConfig;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
@@ -8,8 +10,12 @@ import jakarta.persistence.Table;
 import java.io.Serializable;
 import java.time.OffsetDateTime;
 import java.util.UUID;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.ORGANIZATION_MEMBERS)
 @Table(name = "organization_members")
 @IdClass(OrganizationMemberEntity.Pk.class)
 public class OrganizationMemberEntity {
@@ -1,13 +1,54 @@
 package com.taskmgr.project.orgs;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface OrganizationMemberRepository extends JpaRepository<OrganizationMemberEntity, OrganizationMemberEntity.Pk> {
   List<OrganizationMemberEntity> findByUserId(UUID userId);
   List<OrganizationMemberEntity> findByOrgId(UUID orgId);
   Optional<OrganizationMemberEntity> findByOrgIdAndUserId(UUID orgId, UUID userId);
   boolean existsByOrgIdAndUserId(UUID orgId, UUID userId);
+  List<OrganizationMemberEntity> findByOrgIdAndUserIdIn(UUID orgId, Collection<UUID> userIds);
+
+  // Keyset pages over the (org_id, user_id) primary key.
+  @Query(value = """
+      select org_id as "orgId", user_id as "userId", role as "role"
+      from organization_members
+      where org_id = :orgId and user_id > :after
+      order by user_id
+      limit :limit
+      """, nativeQuery = true)
+  List<MemberRow> findPage(
+      @Param("orgId") UUID orgId,
+      @Param("after") UUID after,
+      @Param("limit") int limit
+  );
+
+  // Served by idx_organization_members_org_role (org_id, role, user_id).
+  @Query(value = """
+      select org_id as "orgId", user_id as "userId", role as "role"
+      from organization_members
+      where org_id = :orgId and role = :role and user_id > :after
+      order by user_id
+      limit :limit
+      """, nativeQuery = true)
+  List<MemberRow> findPageByRole(
+      @Param("orgId") UUID orgId,
+      @Param("role") String role,
+      @Param("after") UUID after,
+      @Param("limit") int limit
+  );
+
+  @Query("""
+      select m.role as role, count(m) as count
+      from OrganizationMemberEntity m
+      where m.orgId = :orgId
+      group by m.role
+      """)
+  List<RoleCount> countByRole(@Param("orgId") UUID orgId);
 }
@@ -1,6 +1,27 @@
 package com.taskmgr.project.orgs;
 
+import java.util.List;
 import java.util.UUID;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface OrganizationRepository extends JpaRepository<OrganizationEntity, UUID> {}
+public interface OrganizationRepository extends JpaRepository<OrganizationEntity, UUID> {
+
+  @Query("""
+      select new com.taskmgr.project.orgs.OrgSummary(o.id, o.name)
+      from OrganizationEntity o
+      join OrganizationMemberEntity m on m.orgId = o.id
+      where m.userId = :userId
+      order by lower(o.name), o.id
+      """)
+  List<OrgSummary> findSummariesForMember(@Param("userId") UUID userId, Pageable pageable);
+
+  @Query("""
+      select new com.taskmgr.project.orgs.OrgSummary(o.id, o.name)
+      from OrganizationEntity o
+      order by lower(o.name), o.id
+      """)
+  List<OrgSummary> findAllSummaries(Pageable pageable);
+}
@@ -0,0 +1,8 @@
+package com.taskmgr.project.orgs;
+
+/** Aggregate projection: number of members holding {@code role} in an org. */
+public interface RoleCount {
+  String getRole();
+
+  long getCount();
+}
@@ -0,0 +1,102 @@
+package com.taskmgr.project.projects;
+
+import com.taskmgr.project.tasks.TaskPurgeClient;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Delivers {@code project_deletions} outbox rows to task-service. A row is claimed in a short
+ * transaction that pushes {@code next_attempt_at} out by a lease, so no connection, transaction or
+ * row lock is held during the HTTP call. A second short transaction then deletes the project row and
+ * the outbox row together, or records the failure and backs off exponentially. If the dispatcher
+ * dies in between, the lease runs out and the row is delivered again; task-service accepts repeats.
+ */
+@Component
+public class ProjectDeletionDispatcher {
+
+  private final ProjectDeletionRepository deletions;
+  private final ProjectRepository projects;
+  private final TaskPurgeClient taskPurge;
+  private final TransactionTemplate tx;
+  private final int batchSize;
+  private final long baseBackoffSeconds;
+  private final long maxBackoffSeconds;
+  private final long leaseSeconds;
+
+  public ProjectDeletionDispatcher(
+      ProjectDeletionRepository deletions,
+      ProjectRepository projects,
+      TaskPurgeClient taskPurge,
+      PlatformTransactionManager txManager,
+      @Value("${app.projectDeletion.batchSize:20}") int batchSize,
+      @Value("${app.projectDeletion.baseBackoffSeconds:5}") long baseBackoffSeconds,
+      @Value("${app.projectDeletion.maxBackoffSeconds:600}") long maxBackoffSeconds,
+      @Value("${app.projectDeletion.leaseSeconds:30}") long leaseSeconds
+  ) {
+    this.deletions = deletions;
+    this.projects = projects;
+    this.taskPurge = taskPurge;
+    this.tx = new TransactionTemplate(txManager);
+    this.batchSize = batchSize;
+    this.baseBackoffSeconds = baseBackoffSeconds;
+    this.maxBackoffSeconds = maxBackoffSeconds;
+    this.leaseSeconds = leaseSeconds;
+  }
+
+  private record Claim(UUID projectId, UUID requestedByUserId) {}
+
+  @Scheduled(fixedDelayString = "${app.projectDeletion.pollMillis:2000}")
+  public void dispatch() {
+    for (int i = 0; i < batchSize; i++) {
+      Claim claim = tx.execute(status -> claimNext());
+      if (claim == null) {
+        return;
+      }
+      RestClientException failure = requestPurge(claim);
+      tx.executeWithoutResult(status -> finish(claim, failure));
+    }
+  }
+
+  private Claim claimNext() {
+    Optional<ProjectDeletionEntity> next = deletions.lockNextDue();
+    if (next.isEmpty()) {
+      return null;
+    }
+    ProjectDeletionEntity deletion = next.get();
+    deletion.lease(OffsetDateTime.now().plusSeconds(leaseSeconds));
+    return new Claim(deletion.getProjectId(), deletion.getRequestedByUserId());
+  }
+
+  /** Runs with no transaction open; returns the failure, or null once task-service accepted. */
+  private RestClientException requestPurge(Claim claim) {
+    try {
+      taskPurge.requestPurge(claim.projectId(), claim.requestedByUserId());
+      return null;
+    } catch (RestClientException ex) {
+      return ex;
+    }
+  }
+
+  private void finish(Claim claim, RestClientException failure) {
+    // Re-read: the row may have been finished by another instance after our lease ran out.
+    Optional<ProjectDeletionEntity> current = deletions.findById(claim.projectId());
+    if (current.isEmpty()) {
+      return;
+    }
+    ProjectDeletionEntity deletion = current.get();
+    if (failure != null) {
+      long backoff = Math.min(maxBackoffSeconds, baseBackoffSeconds << Math.min(deletion.getAttempts(), 20));
+      deletion.recordFailure(failure.getMessage(), OffsetDateTime.now().plusSeconds(backoff));
+      return;
+    }
+    projects.findById(deletion.getProjectId()).ifPresent(projects::delete);
+    deletions.delete(deletion);
+  }
+}
@@ -0,0 +1,85 @@
+package com.taskmgr.project.projects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** Outbox row for a pending project deletion; see {@link ProjectDeletionDispatcher}. */
+@Entity
+@Table(name = "project_deletions")
+public class ProjectDeletionEntity {
+
+  @Id
+  @Column(name = "project_id", columnDefinition = "uuid")
+  private UUID projectId;
+
+  @Column(name = "org_id", nullable = false, columnDefinition = "uuid")
+  private UUID orgId;
+
+  @Column(name = "requested_by_user_id", nullable = false, columnDefinition = "uuid")
+  private UUID requestedByUserId;
+
+  @Column(name = "requested_at", nullable = false)
+  private OffsetDateTime requestedAt;
+
+  @Column(nullable = false)
+  private int attempts;
+
+  @Column(name = "next_attempt_at", nullable = false)
+  private OffsetDateTime nextAttemptAt;
+
+  @Column(name = "last_error")
+  private String lastError;
+
+  protected ProjectDeletionEntity() {}
+
+  public ProjectDeletionEntity(UUID projectId, UUID orgId, UUID requestedByUserId, OffsetDateTime requestedAt) {
+    this.projectId = projectId;
+    this.orgId = orgId;
+    this.requestedByUserId = requestedByUserId;
+    this.requestedAt = requestedAt;
+    this.nextAttemptAt = requestedAt;
+  }
+
+  public UUID getProjectId() {
+    return projectId;
+  }
+
+  public UUID getOrgId() {
+    return orgId;
+  }
+
+  public UUID getRequestedByUserId() {
+    return requestedByUserId;
+  }
+
+  public OffsetDateTime getRequestedAt() {
+    return requestedAt;
+  }
+
+  public int getAttempts() {
+    return attempts;
+  }
+
+  public OffsetDateTime getNextAttemptAt() {
+    return nextAttemptAt;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  /** Hides the row from other dispatchers until {@code until}, while one is delivering it. */
+  public void lease(OffsetDateTime until) {
+    this.nextAttemptAt = until;
+  }
+
+  public void recordFailure(String error, OffsetDateTime retryAt) {
+    this.attempts++;
+    this.lastError = error;
+    this.nextAttemptAt = retryAt;
+  }
+}
@@ -0,0 +1,19 @@
+package com.taskmgr.project.projects;
+
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface ProjectDeletionRepository extends JpaRepository<ProjectDeletionEntity, UUID> {
+
+  // Other instances skip the locked row instead of dispatching it twice.
+  @Query(value = """
+      select * from project_deletions
+      where next_attempt_at <= now()
+      order by next_attempt_at
+      limit 1
+      for update skip locked
+      """, nativeQuery = true)
+  Optional<ProjectDeletionEntity> lockNextDue();
+}
@@ -1,13 +1,19 @@
 package com.taskmgr.project.projects;
 
+import com.taskmgr.project.config.SecondLevelCacheConfig;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import java.time.OffsetDateTime;
 import java.util.UUID;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.PROJECTS)
 @Table(name = "projects")
 public class ProjectEntity {
 
@@ -33,6 +39,9 @@ public class ProjectEntity {
   @Column(name = "created_at", nullable = false)
   private OffsetDateTime createdAt;
 
+  @Column(name = "deleting_at")
+  private OffsetDateTime deletingAt;
+
   protected ProjectEntity() {}
 
   public ProjectEntity(
@@ -80,4 +89,16 @@ public class ProjectEntity {
   public OffsetDateTime getCreatedAt() {
     return createdAt;
   }
+
+  public OffsetDateTime getDeletingAt() {
+    return deletingAt;
+  }
+
+  public boolean isDeleting() {
+    return deletingAt != null;
+  }
+
+  public void markDeleting(OffsetDateTime at) {
+    this.deletingAt = at;
+  }
 }
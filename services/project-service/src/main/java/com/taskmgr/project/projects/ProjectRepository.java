@@ -1,9 +1,21 @@
 package com.taskmgr.project.projects;
 
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface ProjectRepository extends JpaRepository<ProjectEntity, UUID> {
-  List<ProjectEntity> findByOrgId(UUID orgId);
+  // Query cache: invalidated by Hibernate whenever the projects table is written through JPA.
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+  @Query("""
+      select new com.taskmgr.project.projects.ProjectSummary(p.id, p.orgId, p.name, p.description, p.repoUrl)
+      from ProjectEntity p
+      where p.orgId = :orgId and p.deletingAt is null
+      """)
+  List<ProjectSummary> findSummariesByOrgId(@Param("orgId") UUID orgId);
 }
@@ -0,0 +1,6 @@
+package com.taskmgr.project.projects;
+
+import java.util.UUID;
+
+/** Read-only projection of a project for list endpoints. */
+public record ProjectSummary(UUID id, UUID orgId, String name, String description, String repoUrl) {}
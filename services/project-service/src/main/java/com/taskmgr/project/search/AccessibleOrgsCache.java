@@ -0,0 +1,62 @@
+package com.taskmgr.project.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taskmgr.project.invalidation.InvalidationBus;
+import com.taskmgr.project.orgs.MembershipCache;
+import com.taskmgr.project.orgs.OrganizationMemberEntity;
+import com.taskmgr.project.orgs.OrganizationMemberRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-user candidate set for quick search: the ids of the orgs the user belongs to. Listens on the
+ * same invalidation topics as {@link MembershipCache}; a membership change evicts the users it
+ * names, and only an org-wide change without user ids drops everything.
+ */
+@Component
+public class AccessibleOrgsCache {
+
+  private final OrganizationMemberRepository members;
+  private final Cache<UUID, List<UUID>> orgIds;
+
+  public AccessibleOrgsCache(
+      OrganizationMemberRepository members,
+      InvalidationBus bus,
+      MeterRegistry meters,
+      @Value("${app.searchCache.maxSize:50000}") long maxSize,
+      @Value("${app.searchCache.ttlSeconds:300}") long ttlSeconds
+  ) {
+    this.members = members;
+    this.orgIds = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meters, orgIds, "search_orgs");
+
+    bus.register(MembershipCache.TOPIC_MEMBER, args -> orgIds.invalidate(UUID.fromString(args[1])), orgIds::invalidateAll);
+    bus.register(MembershipCache.TOPIC_ORG, this::onOrgMessage, orgIds::invalidateAll);
+  }
+
+  private void onOrgMessage(String[] args) {
+    if (args.length == 1) {
+      orgIds.invalidateAll();
+      return;
+    }
+    for (int i = 1; i < args.length; i++) {
+      orgIds.invalidate(UUID.fromString(args[i]));
+    }
+  }
+
+  public List<UUID> orgIdsFor(UUID userId) {
+    return orgIds.get(userId, uid -> members.findByUserId(uid).stream()
+        .map(OrganizationMemberEntity::getOrgId)
+        .toList());
+  }
+}
@@ -0,0 +1,96 @@
+package com.taskmgr.project.search;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prefix and trigram matching over org and project names. Prefix matches rank first, then
+ * {@code similarity()}. Both predicates are served by the V6 indexes on {@code lower(name)}.
+ * Queries shorter than three characters have no usable trigrams and only match by prefix.
+ */
+@Component
+public class QuickSearch {
+
+  public record Hit(String kind, UUID id, UUID orgId, String name) {}
+
+  private static final int MIN_FUZZY_LENGTH = 3;
+
+  private static final String SEARCH = """
+      (select 'ORG' as kind, o.id, o.id as org_id, o.name,
+              lower(o.name) like ? as is_prefix, similarity(lower(o.name), ?) as score
+       from organizations o
+       where %1$s (lower(o.name) like ? %2$s)
+       order by is_prefix desc, score desc
+       limit ?)
+      union all
+      (select 'PROJECT', p.id, p.org_id, p.name,
+              lower(p.name) like ? as is_prefix, similarity(lower(p.name), ?) as score
+       from projects p
+       where p.deleting_at is null and %3$s (lower(p.name) like ? %4$s)
+       order by is_prefix desc, score desc
+       limit ?)
+      order by is_prefix desc, score desc, name
+      limit ?
+      """;
+
+  private final JdbcTemplate jdbc;
+
+  public QuickSearch(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  /** Searches within {@code orgIds}, or across everything when {@code orgIds} is null (root). */
+  public List<Hit> search(String query, List<UUID> orgIds, int limit) {
+    String term = query.trim().toLowerCase(Locale.ROOT);
+    String prefix = escapeLike(term) + "%";
+    boolean fuzzy = term.length() >= MIN_FUZZY_LENGTH;
+    boolean scoped = orgIds != null;
+
+    String sql = SEARCH.formatted(
+        scoped ? "o.id = any(?) and" : "",
+        fuzzy ? "or lower(o.name) % ?" : "",
+        scoped ? "p.org_id = any(?) and" : "",
+        fuzzy ? "or lower(p.name) % ?" : ""
+    );
+
+    return jdbc.query(con -> {
+      PreparedStatement ps = con.prepareStatement(sql);
+      Array scope = scoped ? con.createArrayOf("uuid", orgIds.toArray()) : null;
+      int next = bindBranch(ps, 1, term, prefix, fuzzy, scope, limit);
+      next = bindBranch(ps, next, term, prefix, fuzzy, scope, limit);
+      ps.setInt(next, limit);
+      return ps;
+    }, (rs, n) -> new Hit(
+        rs.getString("kind"),
+        rs.getObject("id", UUID.class),
+        rs.getObject("org_id", UUID.class),
+        rs.getString("name")
+    ));
+  }
+
+  // Binds one branch of the union in placeholder order; returns the next parameter index.
+  private static int bindBranch(PreparedStatement ps, int i, String term, String prefix, boolean fuzzy, Array scope, int limit)
+      throws SQLException {
+    ps.setString(i++, prefix);
+    ps.setString(i++, term);
+    if (scope != null) {
+      ps.setArray(i++, scope);
+    }
+    ps.setString(i++, prefix);
+    if (fuzzy) {
+      ps.setString(i++, term);
+    }
+    ps.setInt(i++, limit);
+    return i;
+  }
+
+  private static String escapeLike(String raw) {
+    return raw.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
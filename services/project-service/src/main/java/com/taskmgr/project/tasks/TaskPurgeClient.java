@@ -0,0 +1,36 @@
+package com.taskmgr.project.tasks;
+
+import java.time.Duration;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+@Component
+public class TaskPurgeClient {
+
+  private final RestClient restClient;
+
+  public TaskPurgeClient(
+      @Value("${app.tasks.base-url}") String baseUrl,
+      @Value("${app.projectDeletion.requestTimeoutMillis:5000}") long timeoutMillis
+  ) {
+    SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+    requestFactory.setConnectTimeout(Duration.ofMillis(timeoutMillis));
+    requestFactory.setReadTimeout(Duration.ofMillis(timeoutMillis));
+    this.restClient = RestClient.builder().baseUrl(baseUrl).requestFactory(requestFactory).build();
+  }
+
+  /**
+   * Asks task-service to purge the project's tasks and comments. Task-service records the purge
+   * durably and returns straight away; repeating the call is harmless.
+   */
+  public void requestPurge(UUID projectId, UUID requestedByUserId) {
+    restClient.delete()
+        .uri("/internal/projects/{projectId}/tasks", projectId)
+        .header("X-User-Id", requestedByUserId.toString())
+        .retrieve()
+        .toBodilessEntity();
+  }
+}
@@ -0,0 +1,100 @@
+package com.taskmgr.project.tasks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Per-project task counts from task-service. Large project lists are split into batches that are
+ * requested in parallel; whatever has arrived by the deadline is returned and the rest is
+ * reported as incomplete rather than failing the caller.
+ */
+@Component
+public class TaskStatsClient {
+
+  public record TaskStats(String projectId, long total, long todo, long inProgress, long done) {}
+
+  public record StatsResult(Map<UUID, TaskStats> stats, boolean complete) {}
+
+  private final RestClient restClient;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final long timeoutMillis;
+  private final int batchSize;
+
+  public TaskStatsClient(
+      @Value("${app.tasks.base-url}") String baseUrl,
+      @Value("${app.tasks.statsTimeoutMillis:800}") long timeoutMillis,
+      @Value("${app.tasks.statsBatchSize:100}") int batchSize
+  ) {
+    SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+    requestFactory.setConnectTimeout(Duration.ofMillis(timeoutMillis));
+    requestFactory.setReadTimeout(Duration.ofMillis(timeoutMillis));
+    this.restClient = RestClient.builder().baseUrl(baseUrl).requestFactory(requestFactory).build();
+    this.timeoutMillis = timeoutMillis;
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  /** Starts the requests now; call {@link Pending#await()} once the caller's own work is done. */
+  public Pending start(UUID requesterId, List<UUID> projectIds) {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    List<CompletableFuture<List<TaskStats>>> batches = new ArrayList<>();
+    for (int i = 0; i < projectIds.size(); i += batchSize) {
+      List<UUID> batch = projectIds.subList(i, Math.min(i + batchSize, projectIds.size()));
+      batches.add(CompletableFuture.supplyAsync(() -> fetch(requesterId, batch), executor));
+    }
+    return new Pending(batches, deadline);
+  }
+
+  private List<TaskStats> fetch(UUID requesterId, List<UUID> projectIds) {
+    List<TaskStats> body = restClient.get()
+        .uri(b -> b.path("/tasks/stats").queryParam("projectId", projectIds.toArray()).build())
+        .header("X-User-Id", requesterId.toString())
+        .retrieve()
+        .body(new ParameterizedTypeReference<List<TaskStats>>() {});
+    return body == null ? List.of() : body;
+  }
+
+  public static final class Pending {
+    private final List<CompletableFuture<List<TaskStats>>> batches;
+    private final long deadline;
+
+    private Pending(List<CompletableFuture<List<TaskStats>>> batches, long deadline) {
+      this.batches = batches;
+      this.deadline = deadline;
+    }
+
+    public StatsResult await() {
+      Map<UUID, TaskStats> stats = new HashMap<>();
+      boolean complete = true;
+      for (CompletableFuture<List<TaskStats>> batch : batches) {
+        try {
+          long remaining = Math.max(0, deadline - System.nanoTime());
+          for (TaskStats s : batch.get(remaining, TimeUnit.NANOSECONDS)) {
+            stats.put(UUID.fromString(s.projectId()), s);
+          }
+        } catch (TimeoutException | ExecutionException ex) {
+          complete = false;
+          batch.cancel(false);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          complete = false;
+        }
+      }
+      return new StatsResult(stats, complete);
+    }
+  }
+}
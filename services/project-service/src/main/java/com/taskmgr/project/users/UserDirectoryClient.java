@@ -0,0 +1,61 @@
+package com.taskmgr.project.users;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+@Component
+public class UserDirectoryClient {
+
+  public record UserRef(String id, String name, String email) {}
+
+  private record EmailLookupRequest(Collection<String> emails) {}
+
+  private final RestClient restClient;
+
+  public UserDirectoryClient(
+      @Value("${app.auth.base-url}") String baseUrl,
+      @Value("${app.auth.timeoutMillis:3000}") long timeoutMillis
+  ) {
+    SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+    requestFactory.setConnectTimeout(Duration.ofMillis(timeoutMillis));
+    requestFactory.setReadTimeout(Duration.ofMillis(timeoutMillis));
+    this.restClient = RestClient.builder().baseUrl(baseUrl).requestFactory(requestFactory).build();
+  }
+
+  /**
+   * Resolves emails to user ids with a single call to auth-service. Keys are lower-cased;
+   * unknown emails are absent. Failures, including timeouts (a {@code ResourceAccessException}
+   * caused by a {@code SocketTimeoutException}), propagate so callers can report them.
+   */
+  public Map<String, UUID> resolveEmails(UUID requesterId, Collection<String> emails) {
+    if (emails.isEmpty()) {
+      return Map.of();
+    }
+    List<UserRef> found = restClient.post()
+        .uri("/auth/users/lookup")
+        .header("X-User-Id", requesterId.toString())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(new EmailLookupRequest(emails))
+        .retrieve()
+        .body(new ParameterizedTypeReference<List<UserRef>>() {});
+
+    Map<String, UUID> byEmail = new HashMap<>();
+    if (found != null) {
+      for (UserRef u : found) {
+        byEmail.put(u.email().toLowerCase(Locale.ROOT), UUID.fromString(u.id()));
+      }
+    }
+    return byEmail;
+  }
+}
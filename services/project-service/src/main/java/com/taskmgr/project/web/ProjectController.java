@@ -1,18 +1,40 @@
 package com.taskmgr.project.web;
 
+import com.taskmgr.project.orgs.MemberBatchWriter;
+import com.taskmgr.project.orgs.MemberBatchWriter.BulkAdd;
+import com.taskmgr.project.orgs.MemberRow;
+import com.taskmgr.project.orgs.MembershipCache;
 import com.taskmgr.project.orgs.OrganizationEntity;
 import com.taskmgr.project.orgs.OrganizationMemberEntity;
 import com.taskmgr.project.orgs.OrganizationMemberRepository;
 import com.taskmgr.project.orgs.OrganizationRepository;
+import com.taskmgr.project.orgs.OrgSummary;
+import com.taskmgr.project.orgs.RoleCount;
+import com.taskmgr.project.projects.ProjectDeletionEntity;
+import com.taskmgr.project.projects.ProjectDeletionRepository;
 import com.taskmgr.project.projects.ProjectEntity;
 import com.taskmgr.project.projects.ProjectRepository;
+import com.taskmgr.project.projects.ProjectSummary;
+import com.taskmgr.project.tasks.TaskStatsClient;
+import com.taskmgr.project.users.UserDirectoryClient;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.net.SocketTimeoutException;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -20,8 +42,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
 
 @RestController
 @RequestMapping
@@ -30,11 +55,30 @@ public class ProjectController {
   private final OrganizationRepository orgs;
   private final OrganizationMemberRepository members;
   private final ProjectRepository projects;
-
-  public ProjectController(OrganizationRepository orgs, OrganizationMemberRepository members, ProjectRepository projects) {
+  private final ProjectDeletionRepository projectDeletions;
+  private final MembershipCache membership;
+  private final MemberBatchWriter memberWriter;
+  private final UserDirectoryClient userDirectory;
+  private final TaskStatsClient taskStats;
+
+  public ProjectController(
+      OrganizationRepository orgs,
+      OrganizationMemberRepository members,
+      ProjectRepository projects,
+      ProjectDeletionRepository projectDeletions,
+      MembershipCache membership,
+      MemberBatchWriter memberWriter,
+      UserDirectoryClient userDirectory,
+      TaskStatsClient taskStats
+  ) {
     this.orgs = orgs;
     this.members = members;
     this.projects = projects;
+    this.projectDeletions = projectDeletions;
+    this.membership = membership;
+    this.memberWriter = memberWriter;
+    this.userDirectory = userDirectory;
+    this.taskStats = taskStats;
   }
 
   public record OrgCreateRequest(@NotBlank String name) {}
@@ -42,9 +86,27 @@ public class ProjectController {
 
   public record ProjectCreateRequest(@NotBlank String name, String description, String repoUrl) {}
   public record ProjectView(String id, String orgId, String name, String description, String repoUrl) {}
+  public record ProjectOverview(ProjectView project, TaskStatsClient.TaskStats taskStats) {}
+  public record OrgOverviewView(
+      OrgView org,
+      String myRole,
+      long memberCount,
+      Map<String, Long> roleCounts,
+      List<ProjectOverview> projects,
+      boolean taskStatsComplete
+  ) {}
 
   public record AddMemberRequest(@NotNull UUID userId, String role) {}
   public record MemberView(String orgId, String userId, String role) {}
+  public record MemberPage(List<MemberView> items, String nextCursor) {}
+  public record MemberSummaryView(long total, Map<String, Long> roleCounts, String myRole) {}
+
+  /** Each entry is either a user id or an email; all new members get {@code role}. */
+  public record BulkAddMembersRequest(@NotNull @Size(min = 1, max = 1000) List<String> members, String role) {}
+  public record BulkMemberResult(String input, String userId, String role, String status, String error) {}
+  public record BulkAddMembersResult(int added, int existing, int failed, List<BulkMemberResult> results) {}
+
+  private static final UUID KEYSET_START = new UUID(0L, 0L);
 
   private boolean isRoot(String raw) {
     return raw != null && raw.equalsIgnoreCase("true");
@@ -56,6 +118,29 @@ public class ProjectController {
     }
   }
 
+  private void requireMember(UUID orgId, UUID userId) {
+    if (!membership.isMember(orgId, userId)) {
+      throw new WebException(HttpStatus.FORBIDDEN, "Not a member of org");
+    }
+  }
+
+  private void requireAdmin(UUID orgId, UUID userId) {
+    String role = membership.role(orgId, userId)
+        .orElseThrow(() -> new WebException(HttpStatus.FORBIDDEN, "Not a member of org"));
+    if (!"ADMIN".equalsIgnoreCase(role)) {
+      throw new WebException(HttpStatus.FORBIDDEN, "Admin role required");
+    }
+  }
+
+  private String parseRole(String raw) {
+    String role = (raw == null || raw.isBlank()) ? "MEMBER" : raw.trim().toUpperCase();
+    if (!role.equals("ADMIN") && !role.equals("MEMBER")) {
+      throw new WebException(HttpStatus.BAD_REQUEST, "Role must be ADMIN or MEMBER");
+    }
+    return role;
+  }
+
+  @Transactional
   @PostMapping("/orgs")
   @ResponseStatus(HttpStatus.CREATED)
   public OrgView createOrg(
@@ -71,10 +156,12 @@ public class ProjectController {
     orgs.save(org);
 
     members.save(new OrganizationMemberEntity(orgId, uid, "ADMIN", OffsetDateTime.now()));
+    membership.invalidate(orgId, uid);
 
     return new OrgView(org.getId().toString(), org.getName());
   }
 
+  @Transactional
   @PostMapping("/orgs/{orgId}/members")
   @ResponseStatus(HttpStatus.CREATED)
   public MemberView addMember(
@@ -87,50 +174,183 @@ public class ProjectController {
     UUID requesterId = UUID.fromString(requesterUserId);
     UUID oid = UUID.fromString(orgId);
 
-    OrganizationMemberEntity requesterMembership = members.findByOrgIdAndUserId(oid, requesterId)
-        .orElseThrow(() -> new WebException(HttpStatus.FORBIDDEN, "Not a member of org"));
-
-    if (!"ADMIN".equalsIgnoreCase(requesterMembership.getRole())) {
-      throw new WebException(HttpStatus.FORBIDDEN, "Admin role required");
-    }
+    requireAdmin(oid, requesterId);
 
     UUID newMemberUserId = request.userId();
-    if (members.existsByOrgIdAndUserId(oid, newMemberUserId)) {
-      OrganizationMemberEntity existing = members.findByOrgIdAndUserId(oid, newMemberUserId)
-          .orElseThrow(() -> new WebException(HttpStatus.CONFLICT, "User is already a member"));
-      return new MemberView(existing.getOrgId().toString(), existing.getUserId().toString(), existing.getRole());
+    String existingRole = membership.role(oid, newMemberUserId).orElse(null);
+    if (existingRole != null) {
+      return new MemberView(oid.toString(), newMemberUserId.toString(), existingRole);
     }
 
-    String role = (request.role() == null || request.role().isBlank()) ? "MEMBER" : request.role().trim().toUpperCase();
-    if (!role.equals("ADMIN") && !role.equals("MEMBER")) {
-      throw new WebException(HttpStatus.BAD_REQUEST, "Role must be ADMIN or MEMBER");
-    }
+    String role = parseRole(request.role());
 
     OrganizationMemberEntity member = new OrganizationMemberEntity(oid, newMemberUserId, role, OffsetDateTime.now());
     members.save(member);
+    membership.invalidate(oid, newMemberUserId);
 
     return new MemberView(member.getOrgId().toString(), member.getUserId().toString(), member.getRole());
   }
 
+  /**
+   * Adds many members in one go: emails are resolved with a single auth-service call, existing
+   * members are found with one IN query and the rest are inserted in one statement. Every input
+   * entry gets a result, in input order. The auth-service call happens before any transaction, so
+   * no pooled connection is held across it; only the membership writes are transactional.
+   */
+  @PostMapping("/orgs/{orgId}/members:bulk")
+  public BulkAddMembersResult addMembersBulk(
+      @RequestHeader("X-User-Id") String requesterUserId,
+      @RequestHeader(value = "X-User-Root", required = false) String root,
+      @PathVariable String orgId,
+      @Valid @RequestBody BulkAddMembersRequest request
+  ) {
+    forbidIfRoot(root);
+    UUID requesterId = UUID.fromString(requesterUserId);
+    UUID oid = UUID.fromString(orgId);
+
+    requireAdmin(oid, requesterId);
+    String role = parseRole(request.role());
+
+    List<String> inputs = request.members().stream().map(m -> m == null ? "" : m.trim()).toList();
+    Set<String> emails = new LinkedHashSet<>();
+    for (String input : inputs) {
+      if (parseUuid(input) == null && input.contains("@")) {
+        emails.add(input.toLowerCase(Locale.ROOT));
+      }
+    }
+
+    Map<String, UUID> idsByEmail;
+    try {
+      idsByEmail = userDirectory.resolveEmails(requesterId, emails);
+    } catch (ResourceAccessException ex) {
+      if (ex.getCause() instanceof SocketTimeoutException) {
+        throw new WebException(HttpStatus.GATEWAY_TIMEOUT, "User lookup timed out");
+      }
+      throw new WebException(HttpStatus.BAD_GATEWAY, "User lookup failed");
+    } catch (RestClientException ex) {
+      throw new WebException(HttpStatus.BAD_GATEWAY, "User lookup failed");
+    }
+
+    UUID[] resolved = new UUID[inputs.size()];
+    Set<UUID> candidates = new LinkedHashSet<>();
+    for (int i = 0; i < inputs.size(); i++) {
+      String input = inputs.get(i);
+      UUID id = parseUuid(input);
+      if (id == null && input.contains("@")) {
+        id = idsByEmail.get(input.toLowerCase(Locale.ROOT));
+      }
+      resolved[i] = id;
+      if (id != null) {
+        candidates.add(id);
+      }
+    }
+
+    BulkAdd outcome = memberWriter.addMissing(oid, candidates, role);
+    Map<UUID, String> existingRoles = outcome.existingRoles();
+    Set<UUID> inserted = outcome.inserted();
+
+    List<BulkMemberResult> results = new ArrayList<>(inputs.size());
+    Set<UUID> reported = new HashSet<>();
+    int added = 0;
+    int existing = 0;
+    int failed = 0;
+    for (int i = 0; i < inputs.size(); i++) {
+      String input = inputs.get(i);
+      UUID id = resolved[i];
+      if (id == null) {
+        failed++;
+        String error = input.contains("@") ? "User not found" : "Not a user id or email";
+        results.add(new BulkMemberResult(input, null, null, input.contains("@") ? "NOT_FOUND" : "INVALID", error));
+      } else if (!reported.add(id)) {
+        results.add(new BulkMemberResult(input, id.toString(), null, "DUPLICATE", null));
+      } else if (inserted.contains(id)) {
+        added++;
+        results.add(new BulkMemberResult(input, id.toString(), role, "ADDED", null));
+      } else {
+        existing++;
+        results.add(new BulkMemberResult(input, id.toString(), existingRoles.get(id), "ALREADY_MEMBER", null));
+      }
+    }
+
+    return new BulkAddMembersResult(added, existing, failed, results);
+  }
+
+  private static UUID parseUuid(String raw) {
+    try {
+      return raw.length() == 36 ? UUID.fromString(raw) : null;
+    } catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * One keyset page of the roster ordered by user id. Pass the previous page's
+   * {@code nextCursor} as {@code after}; it is null on the last page.
+   */
+  @Transactional(readOnly = true)
   @GetMapping("/orgs/{orgId}/members")
-  public List<MemberView> listMembers(
+  public MemberPage listMembers(
       @RequestHeader("X-User-Id") String requesterUserId,
       @RequestHeader(value = "X-User-Root", required = false) String root,
-      @PathVariable String orgId
+      @PathVariable String orgId,
+      @RequestParam(name = "after", required = false) String after,
+      @RequestParam(name = "limit", defaultValue = "100") int limit,
+      @RequestParam(name = "role", required = false) String role
   ) {
     UUID requesterId = UUID.fromString(requesterUserId);
     UUID oid = UUID.fromString(orgId);
 
-    if (!isRoot(root) && !members.existsByOrgIdAndUserId(oid, requesterId)) {
-      throw new WebException(HttpStatus.FORBIDDEN, "Not a member of org");
+    if (!isRoot(root)) {
+      requireMember(oid, requesterId);
+    }
+    if (limit < 1 || limit > 1000) {
+      throw new WebException(HttpStatus.BAD_REQUEST, "limit must be between 1 and 1000");
     }
 
-    return members.findByOrgId(oid)
-        .stream()
+    UUID cursor = (after == null || after.isBlank()) ? KEYSET_START : UUID.fromString(after);
+    List<MemberRow> rows = (role == null || role.isBlank())
+        ? members.findPage(oid, cursor, limit)
+        : members.findPageByRole(oid, role.trim().toUpperCase(), cursor, limit);
+
+    List<MemberView> items = rows.stream()
         .map(m -> new MemberView(m.getOrgId().toString(), m.getUserId().toString(), m.getRole()))
         .toList();
+    String nextCursor = rows.size() == limit ? items.get(items.size() - 1).userId() : null;
+    return new MemberPage(items, nextCursor);
+  }
+
+  @GetMapping("/orgs/{orgId}/members/summary")
+  public MemberSummaryView memberSummary(
+      @RequestHeader("X-User-Id") String requesterUserId,
+      @RequestHeader(value = "X-User-Root", required = false) String root,
+      @PathVariable String orgId
+  ) {
+    UUID requesterId = UUID.fromString(requesterUserId);
+    UUID oid = UUID.fromString(orgId);
+
+    String myRole = membership.role(oid, requesterId).orElse(null);
+    if (!isRoot(root) && myRole == null) {
+      throw new WebException(HttpStatus.FORBIDDEN, "Not a member of org");
+    }
+
+    Map<String, Long> roleCounts = roleCounts(oid);
+    long total = roleCounts.values().stream().mapToLong(Long::longValue).sum();
+    return new MemberSummaryView(total, roleCounts, myRole);
   }
 
+  private ProjectView toView(ProjectSummary p) {
+    return new ProjectView(p.id().toString(), p.orgId().toString(), p.name(), p.description(), p.repoUrl());
+  }
+
+  private Map<String, Long> roleCounts(UUID orgId) {
+    Map<String, Long> counts = new LinkedHashMap<>();
+    for (RoleCount rc : members.countByRole(orgId)) {
+      counts.merge(rc.getRole().toUpperCase(), rc.getCount(), Long::sum);
+    }
+    return counts;
+  }
+
+  @Transactional
   @DeleteMapping("/orgs/{orgId}/members/{userId}")
   @ResponseStatus(HttpStatus.NO_CONTENT)
   public void removeMember(
@@ -144,12 +364,7 @@ public class ProjectController {
     UUID oid = UUID.fromString(orgId);
     UUID targetUserId = UUID.fromString(userId);
 
-    OrganizationMemberEntity requesterMembership = members.findByOrgIdAndUserId(oid, requesterId)
-        .orElseThrow(() -> new WebException(HttpStatus.FORBIDDEN, "Not a member of org"));
-
-    if (!"ADMIN".equalsIgnoreCase(requesterMembership.getRole())) {
-      throw new WebException(HttpStatus.FORBIDDEN, "Admin role required");
-    }
+    requireAdmin(oid, requesterId);
 
     if (requesterId.equals(targetUserId)) {
       throw new WebException(HttpStatus.BAD_REQUEST, "You cannot remove yourself");
@@ -159,33 +374,33 @@ public class ProjectController {
         .orElseThrow(() -> new WebException(HttpStatus.NOT_FOUND, "Member not found"));
 
     if ("ADMIN".equalsIgnoreCase(target.getRole())) {
-      long adminCount = members.findByOrgId(oid)
-          .stream()
-          .filter(m -> "ADMIN".equalsIgnoreCase(m.getRole()))
-          .count();
+      long adminCount = roleCounts(oid).getOrDefault("ADMIN", 0L);
       if (adminCount <= 1) {
         throw new WebException(HttpStatus.CONFLICT, "Cannot remove the last admin");
       }
     }
 
     members.delete(target);
+    membership.invalidate(oid, targetUserId);
   }
 
   @GetMapping("/orgs")
   public List<OrgView> listOrgs(
       @RequestHeader("X-User-Id") String userId,
-      @RequestHeader(value = "X-User-Root", required = false) String root
+      @RequestHeader(value = "X-User-Root", required = false) String root,
+      @RequestParam(name = "page", defaultValue = "0") int page,
+      @RequestParam(name = "size", defaultValue = "100") int size
   ) {
-    if (isRoot(root)) {
-      return orgs.findAll().stream().map(o -> new OrgView(o.getId().toString(), o.getName())).toList();
+    if (page < 0 || size < 1 || size > 500) {
+      throw new WebException(HttpStatus.BAD_REQUEST, "page must be >= 0 and size between 1 and 500");
     }
-    UUID uid = UUID.fromString(userId);
-    return members.findByUserId(uid)
-        .stream()
-        .map(m -> orgs.findById(m.getOrgId()).orElse(null))
-        .filter(o -> o != null)
-        .map(o -> new OrgView(o.getId().toString(), o.getName()))
-        .toList();
+    PageRequest pageable = PageRequest.of(page, size);
+
+    List<OrgSummary> rows = isRoot(root)
+        ? orgs.findAllSummaries(pageable)
+        : orgs.findSummariesForMember(UUID.fromString(userId), pageable);
+
+    return rows.stream().map(o -> new OrgView(o.id().toString(), o.name())).toList();
   }
 
   @PostMapping("/orgs/{orgId}/projects")
@@ -200,12 +415,7 @@ public class ProjectController {
     UUID uid = UUID.fromString(userId);
     UUID oid = UUID.fromString(orgId);
 
-    OrganizationMemberEntity membership = members.findByOrgIdAndUserId(oid, uid)
-        .orElseThrow(() -> new WebException(HttpStatus.FORBIDDEN, "Not a member of org"));
-
-    if (!"ADMIN".equalsIgnoreCase(membership.getRole())) {
-      throw new WebException(HttpStatus.FORBIDDEN, "Admin role required");
-    }
+    requireAdmin(oid, uid);
 
     UUID pid = UUID.randomUUID();
     ProjectEntity project = new ProjectEntity(pid, oid, request.name(), request.description(), request.repoUrl(), uid, OffsetDateTime.now());
@@ -220,6 +430,7 @@ public class ProjectController {
     );
   }
 
+  @Transactional(readOnly = true)
   @GetMapping("/orgs/{orgId}/projects")
   public List<ProjectView> listProjects(
       @RequestHeader("X-User-Id") String userId,
@@ -229,14 +440,56 @@ public class ProjectController {
     UUID uid = UUID.fromString(userId);
     UUID oid = UUID.fromString(orgId);
 
-    if (!isRoot(root) && !members.existsByOrgIdAndUserId(oid, uid)) {
-      throw new WebException(HttpStatus.FORBIDDEN, "Not a member of org");
+    if (!isRoot(root)) {
+      requireMember(oid, uid);
     }
 
-    return projects.findByOrgId(oid)
+    return projects.findSummariesByOrgId(oid)
         .stream()
-      .map(p -> new ProjectView(p.getId().toString(), p.getOrgId().toString(), p.getName(), p.getDescription(), p.getRepoUrl()))
+        .map(this::toView)
+        .toList();
+  }
+
+  /**
+   * Everything the dashboard needs for one org behind a single membership check. Task counts come
+   * from task-service; if it is slow the affected projects have null stats and
+   * {@code taskStatsComplete} is false.
+   */
+  @GetMapping("/orgs/{orgId}/overview")
+  public OrgOverviewView orgOverview(
+      @RequestHeader("X-User-Id") String userId,
+      @RequestHeader(value = "X-User-Root", required = false) String root,
+      @PathVariable String orgId
+  ) {
+    UUID uid = UUID.fromString(userId);
+    UUID oid = UUID.fromString(orgId);
+
+    String myRole = membership.role(oid, uid).orElse(null);
+    if (!isRoot(root) && myRole == null) {
+      throw new WebException(HttpStatus.FORBIDDEN, "Not a member of org");
+    }
+    OrganizationEntity org = orgs.findById(oid)
+        .orElseThrow(() -> new WebException(HttpStatus.NOT_FOUND, "Org not found"));
+
+    List<ProjectSummary> orgProjects = projects.findSummariesByOrgId(oid);
+    TaskStatsClient.Pending pendingStats = taskStats.start(uid, orgProjects.stream().map(ProjectSummary::id).toList());
+
+    Map<String, Long> roleCounts = roleCounts(oid);
+    long memberCount = roleCounts.values().stream().mapToLong(Long::longValue).sum();
+
+    TaskStatsClient.StatsResult stats = pendingStats.await();
+    List<ProjectOverview> projectViews = orgProjects.stream()
+        .map(p -> new ProjectOverview(toView(p), stats.stats().get(p.id())))
         .toList();
+
+    return new OrgOverviewView(
+        new OrgView(org.getId().toString(), org.getName()),
+        myRole,
+        memberCount,
+        roleCounts,
+        projectViews,
+        stats.complete()
+    );
   }
 
   @GetMapping("/projects/{projectId}")
@@ -247,10 +500,11 @@ public class ProjectController {
   ) {
     UUID uid = UUID.fromString(userId);
     ProjectEntity project = projects.findById(UUID.fromString(projectId))
+        .filter(p -> !p.isDeleting())
         .orElseThrow(() -> new WebException(HttpStatus.NOT_FOUND, "Project not found"));
 
-    if (!isRoot(root) && !members.existsByOrgIdAndUserId(project.getOrgId(), uid)) {
-      throw new WebException(HttpStatus.FORBIDDEN, "Not a member of org");
+    if (!isRoot(root)) {
+      requireMember(project.getOrgId(), uid);
     }
 
     return new ProjectView(
@@ -262,8 +516,13 @@ public class ProjectController {
     );
   }
 
+  /**
+   * Hides the project straight away and records an outbox row; {@code ProjectDeletionDispatcher}
+   * hands the purge to task-service and then removes the project row.
+   */
+  @Transactional
   @DeleteMapping("/projects/{projectId}")
-  @ResponseStatus(HttpStatus.NO_CONTENT)
+  @ResponseStatus(HttpStatus.ACCEPTED)
   public void deleteProject(
       @RequestHeader("X-User-Id") String requesterUserId,
       @RequestHeader(value = "X-User-Root", required = false) String root,
@@ -276,13 +535,13 @@ public class ProjectController {
     ProjectEntity project = projects.findById(pid)
         .orElseThrow(() -> new WebException(HttpStatus.NOT_FOUND, "Project not found"));
 
-    OrganizationMemberEntity requesterMembership = members.findByOrgIdAndUserId(project.getOrgId(), requesterId)
-        .orElseThrow(() -> new WebException(HttpStatus.FORBIDDEN, "Not a member of org"));
+    requireAdmin(project.getOrgId(), requesterId);
 
-    if (!"ADMIN".equalsIgnoreCase(requesterMembership.getRole())) {
-      throw new WebException(HttpStatus.FORBIDDEN, "Admin role required");
+    if (project.isDeleting()) {
+      return;
     }
-
-    projects.delete(project);
+    OffsetDateTime now = OffsetDateTime.now();
+    project.markDeleting(now);
+    projectDeletions.save(new ProjectDeletionEntity(pid, project.getOrgId(), requesterId, now));
   }
 }
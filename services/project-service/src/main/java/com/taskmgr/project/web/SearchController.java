@@ -0,0 +1,57 @@
+package com.taskmgr.project.web;
+
+import com.taskmgr.project.search.AccessibleOrgsCache;
+import com.taskmgr.project.search.QuickSearch;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class SearchController {
+
+  private final AccessibleOrgsCache accessibleOrgs;
+  private final QuickSearch quickSearch;
+
+  public SearchController(AccessibleOrgsCache accessibleOrgs, QuickSearch quickSearch) {
+    this.accessibleOrgs = accessibleOrgs;
+    this.quickSearch = quickSearch;
+  }
+
+  public record QuickSearchHit(String kind, String id, String orgId, String name) {}
+
+  private boolean isRoot(String raw) {
+    return raw != null && raw.equalsIgnoreCase("true");
+  }
+
+  /** Quick switcher: orgs and projects the requester can open whose name matches {@code q}. */
+  @GetMapping("/search/quick")
+  public List<QuickSearchHit> quick(
+      @RequestHeader("X-User-Id") String userId,
+      @RequestHeader(value = "X-User-Root", required = false) String root,
+      @RequestParam("q") String q,
+      @RequestParam(name = "limit", defaultValue = "10") int limit
+  ) {
+    if (q.isBlank() || q.length() > 100) {
+      throw new WebException(HttpStatus.BAD_REQUEST, "q must be 1-100 characters");
+    }
+    if (limit < 1 || limit > 50) {
+      throw new WebException(HttpStatus.BAD_REQUEST, "limit must be between 1 and 50");
+    }
+
+    List<UUID> scope = null;
+    if (!isRoot(root)) {
+      scope = accessibleOrgs.orgIdsFor(UUID.fromString(userId));
+      if (scope.isEmpty()) {
+        return List.of();
+      }
+    }
+
+    return quickSearch.search(q, scope, limit).stream()
+        .map(h -> new QuickSearchHit(h.kind(), h.id().toString(), h.orgId().toString(), h.name()))
+        .toList();
+  }
+}
@@ -0,0 +1,3 @@
+-- Org listing: memberships by user (the PK only covers org_id-first lookups) and name ordering.
+CREATE INDEX IF NOT EXISTS idx_organization_members_user_id ON organization_members(user_id);
+CREATE INDEX IF NOT EXISTS idx_organizations_name_lower ON organizations(lower(name), id);
@@ -0,0 +1,2 @@
+-- Role totals (GROUP BY role) and role-filtered keyset pages of the member roster.
+CREATE INDEX IF NOT EXISTS idx_organization_members_org_role ON organization_members(org_id, role, user_id);
@@ -0,0 +1,16 @@
+-- Projects being deleted are hidden immediately; task-service purges their tasks asynchronously.
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS deleting_at TIMESTAMPTZ;
+
+-- Transactional outbox: written in the same transaction that marks the project, and removed
+-- (together with the project row) once task-service has accepted the purge.
+CREATE TABLE IF NOT EXISTS project_deletions (
+  project_id UUID PRIMARY KEY,
+  org_id UUID NOT NULL,
+  requested_by_user_id UUID NOT NULL,
+  requested_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  attempts INT NOT NULL DEFAULT 0,
+  next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  last_error TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_project_deletions_next_attempt ON project_deletions(next_attempt_at);
@@ -0,0 +1,9 @@
+-- Quick search (GET /search/quick): trigram GIN indexes for fuzzy matching and
+-- text_pattern_ops btrees for prefix LIKE on lower(name).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_organizations_name_trgm ON organizations USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_organizations_name_prefix ON organizations(lower(name) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_projects_name_trgm ON projects USING gin (lower(name) gin_trgm_ops) WHERE deleting_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_projects_name_prefix ON projects(lower(name) text_pattern_ops) WHERE deleting_at IS NULL;
@@ -0,0 +1,130 @@
+package com.taskmgr.project.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * GET /orgs must stay a single statement however many orgs the caller belongs to; a return to
+ * per-membership lookups shows up here as one statement per row.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.taskmgr.project.web.ListOrgsQueryCountTest$CountingInspector",
+    "app.invalidation.enabled=false",
+    "app.projectDeletion.pollMillis=3600000"
+})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class ListOrgsQueryCountTest {
+
+  private static final int MEMBER_ORGS = 40;
+  private static final int OTHER_ORGS = 10;
+
+  @Container
+  static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+  @DynamicPropertySource
+  static void datasource(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+  }
+
+  /**
+   * Counts SQL statements Hibernate prepares on the current thread. MockMvc runs the request on
+   * the test thread, so background jobs can't skew the count.
+   */
+  public static class CountingInspector implements StatementInspector {
+    private static final ThreadLocal<AtomicInteger> COUNT = ThreadLocal.withInitial(AtomicInteger::new);
+
+    static void reset() {
+      COUNT.get().set(0);
+    }
+
+    static int count() {
+      return COUNT.get().get();
+    }
+
+    @Override
+    public String inspect(String sql) {
+      COUNT.get().incrementAndGet();
+      return sql;
+    }
+  }
+
+  @Autowired
+  private MockMvc mvc;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  private final UUID userId = UUID.randomUUID();
+
+  @BeforeEach
+  void seed() {
+    jdbc.update("delete from organizations");
+    UUID creator = UUID.randomUUID();
+    for (int i = 0; i < MEMBER_ORGS + OTHER_ORGS; i++) {
+      UUID orgId = UUID.randomUUID();
+      jdbc.update("insert into organizations (id, name, created_by_user_id) values (?, ?, ?)",
+          orgId, "Org %03d".formatted(i), creator);
+      if (i < MEMBER_ORGS) {
+        jdbc.update("insert into organization_members (org_id, user_id, role) values (?, ?, 'MEMBER')",
+            orgId, userId);
+      }
+    }
+  }
+
+  @Test
+  void memberListingIsOneStatement() throws Exception {
+    CountingInspector.reset();
+
+    mvc.perform(get("/orgs").header("X-User-Id", userId.toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(MEMBER_ORGS))
+        .andExpect(jsonPath("$[0].name").value("Org 000"));
+
+    assertThat(CountingInspector.count()).isEqualTo(1);
+  }
+
+  @Test
+  void pagedMemberListingIsOneStatement() throws Exception {
+    CountingInspector.reset();
+
+    mvc.perform(get("/orgs").header("X-User-Id", userId.toString()).param("page", "1").param("size", "15"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(15))
+        .andExpect(jsonPath("$[0].name").value("Org 015"));
+
+    assertThat(CountingInspector.count()).isEqualTo(1);
+  }
+
+  @Test
+  void rootListingIsOneStatement() throws Exception {
+    CountingInspector.reset();
+
+    mvc.perform(get("/orgs").header("X-User-Id", UUID.randomUUID().toString()).header("X-User-Root", "true"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(MEMBER_ORGS + OTHER_ORGS));
+
+    assertThat(CountingInspector.count()).isEqualTo(1);
+  }
+}
@@ -3,8 +3,16 @@ package com.taskmgr.task.model;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CommentRepository extends JpaRepository<CommentEntity, UUID> {
-  List<CommentEntity> findByTaskIdOrderByCreatedAtAsc(UUID taskId);
+  @Query("""
+      select new com.taskmgr.task.model.CommentSummary(c.id, c.taskId, c.authorUserId, c.body, c.createdAt)
+      from CommentEntity c
+      where c.taskId = :taskId
+      order by c.createdAt asc
+      """)
+  List<CommentSummary> findSummariesByTaskId(@Param("taskId") UUID taskId);
   void deleteByTaskId(UUID taskId);
 }
@@ -0,0 +1,7 @@
+package com.taskmgr.task.model;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** Read-only projection of a comment for list endpoints. */
+public record CommentSummary(UUID id, UUID taskId, UUID authorUserId, String body, OffsetDateTime createdAt) {}
@@ -0,0 +1,78 @@
+package com.taskmgr.task.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "project_purges")
+public class ProjectPurgeEntity {
+
+  @Id
+  @Column(name = "project_id", columnDefinition = "uuid")
+  private UUID projectId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private PurgeStatus status;
+
+  @Column(name = "tasks_deleted", nullable = false)
+  private long tasksDeleted;
+
+  @Column(name = "comments_deleted", nullable = false)
+  private long commentsDeleted;
+
+  @Column(name = "requested_at", nullable = false)
+  private OffsetDateTime requestedAt;
+
+  @Column(name = "updated_at", nullable = false)
+  private OffsetDateTime updatedAt;
+
+  @Column(name = "completed_at")
+  private OffsetDateTime completedAt;
+
+  protected ProjectPurgeEntity() {}
+
+  public UUID getProjectId() {
+    return projectId;
+  }
+
+  public PurgeStatus getStatus() {
+    return status;
+  }
+
+  public long getTasksDeleted() {
+    return tasksDeleted;
+  }
+
+  public long getCommentsDeleted() {
+    return commentsDeleted;
+  }
+
+  public OffsetDateTime getRequestedAt() {
+    return requestedAt;
+  }
+
+  public OffsetDateTime getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public OffsetDateTime getCompletedAt() {
+    return completedAt;
+  }
+
+  public void recordChunk(long tasks, long comments, boolean finished, OffsetDateTime now) {
+    this.tasksDeleted += tasks;
+    this.commentsDeleted += comments;
+    this.updatedAt = now;
+    if (finished) {
+      this.status = PurgeStatus.DONE;
+      this.completedAt = now;
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.taskmgr.task.model;
+
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ProjectPurgeRepository extends JpaRepository<ProjectPurgeEntity, UUID> {
+
+  // Idempotent: a pending purge is left alone; a finished one is reopened so tasks created
+  // after it completed are picked up too.
+  @Modifying
+  @Query(value = """
+      insert into project_purges (project_id, status, requested_at, updated_at)
+      values (:projectId, 'PENDING', now(), now())
+      on conflict (project_id) do update
+        set status = 'PENDING', completed_at = null, updated_at = now()
+      where project_purges.status = 'DONE'
+      """, nativeQuery = true)
+  int enqueue(@Param("projectId") UUID projectId);
+
+  @Query(value = """
+      select * from project_purges
+      where status = 'PENDING'
+      order by requested_at
+      limit 1
+      for update skip locked
+      """, nativeQuery = true)
+  Optional<ProjectPurgeEntity> lockNextPending();
+}
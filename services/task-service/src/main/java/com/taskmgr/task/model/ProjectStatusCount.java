@@ -0,0 +1,9 @@
+package com.taskmgr.task.model;
+
+import java.util.UUID;
+
+public interface ProjectStatusCount {
+  UUID getProjectId();
+  TaskStatus getStatus();
+  long getCount();
+}
@@ -0,0 +1,6 @@
+package com.taskmgr.task.model;
+
+public enum PurgeStatus {
+  PENDING,
+  DONE
+}
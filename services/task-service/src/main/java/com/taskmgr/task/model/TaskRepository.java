@@ -1,10 +1,36 @@
 package com.taskmgr.task.model;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface TaskRepository extends JpaRepository<TaskEntity, UUID> {
-  List<TaskEntity> findByProjectIdOrderByCreatedAtDesc(UUID projectId);
-  List<TaskEntity> findByAssignedToUserIdOrderByCreatedAtDesc(UUID assignedToUserId);
+  @Query("""
+      select new com.taskmgr.task.model.TaskSummary(
+        t.id, t.projectId, t.title, t.description, t.status, t.deadline, t.assignedToUserId)
+      from TaskEntity t
+      where t.projectId = :projectId
+      order by t.createdAt desc
+      """)
+  List<TaskSummary> findSummariesByProjectId(@Param("projectId") UUID projectId);
+
+  @Query("""
+      select new com.taskmgr.task.model.TaskSummary(
+        t.id, t.projectId, t.title, t.description, t.status, t.deadline, t.assignedToUserId)
+      from TaskEntity t
+      where t.assignedToUserId = :assigneeId
+      order by t.createdAt desc
+      """)
+  List<TaskSummary> findSummariesByAssignee(@Param("assigneeId") UUID assigneeId);
+
+  @Query("""
+      select t.projectId as projectId, t.status as status, count(t) as count
+      from TaskEntity t
+      where t.projectId in :projectIds
+      group by t.projectId, t.status
+      """)
+  List<ProjectStatusCount> countByProjectAndStatus(@Param("projectIds") Collection<UUID> projectIds);
 }
@@ -0,0 +1,15 @@
+package com.taskmgr.task.model;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/** Read-only projection of a task for list endpoints (no managed entity behind it). */
+public record TaskSummary(
+    UUID id,
+    UUID projectId,
+    String title,
+    String description,
+    TaskStatus status,
+    LocalDate deadline,
+    UUID assignedToUserId
+) {}
@@ -0,0 +1,91 @@
+package com.taskmgr.task.purge;
+
+import com.taskmgr.task.model.ProjectPurgeEntity;
+import com.taskmgr.task.model.ProjectPurgeRepository;
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Works through {@code project_purges}. Each chunk runs in its own short transaction: it locks the
+ * purge row, deletes up to {@code chunkSize} of the project's tasks (comments first) and records
+ * progress, so a crash loses at most one uncommitted chunk and the next run simply carries on.
+ * Tasks locked by other transactions are skipped by the chunk query, so a short chunk doesn't mean
+ * the project is empty; the purge is only marked done once no task of the project is left.
+ */
+@Component
+public class ProjectPurgeWorker {
+
+  private static final String PICK_TASKS = """
+      select id from tasks where project_id = ? limit ? for update skip locked
+      """;
+  private static final String DELETE_COMMENTS = "delete from comments where task_id = any(?)";
+  private static final String DELETE_TASKS = "delete from tasks where id = any(?)";
+  private static final String ANY_TASK_LEFT = "select exists (select 1 from tasks where project_id = ?)";
+
+  private final ProjectPurgeRepository purges;
+  private final JdbcTemplate jdbc;
+  private final TransactionTemplate tx;
+  private final int chunkSize;
+  private final int maxChunksPerRun;
+
+  public ProjectPurgeWorker(
+      ProjectPurgeRepository purges,
+      JdbcTemplate jdbc,
+      PlatformTransactionManager txManager,
+      @Value("${app.purge.chunkSize:500}") int chunkSize,
+      @Value("${app.purge.maxChunksPerRun:200}") int maxChunksPerRun
+  ) {
+    this.purges = purges;
+    this.jdbc = jdbc;
+    this.tx = new TransactionTemplate(txManager);
+    this.chunkSize = chunkSize;
+    this.maxChunksPerRun = maxChunksPerRun;
+  }
+
+  @Scheduled(fixedDelayString = "${app.purge.pollMillis:2000}")
+  public void run() {
+    for (int i = 0; i < maxChunksPerRun; i++) {
+      if (!Boolean.TRUE.equals(tx.execute(status -> purgeChunk()))) {
+        return;
+      }
+    }
+  }
+
+  private boolean purgeChunk() {
+    ProjectPurgeEntity purge = purges.lockNextPending().orElse(null);
+    if (purge == null) {
+      return false;
+    }
+
+    List<UUID> taskIds = jdbc.queryForList(PICK_TASKS, UUID.class, purge.getProjectId(), chunkSize);
+    long comments = 0;
+    long tasks = 0;
+    if (!taskIds.isEmpty()) {
+      comments = deleteByIds(DELETE_COMMENTS, taskIds);
+      tasks = deleteByIds(DELETE_TASKS, taskIds);
+    }
+
+    // Only a short chunk can be the last one; then check without skipping locked rows.
+    boolean finished = taskIds.size() < chunkSize
+        && !Boolean.TRUE.equals(jdbc.queryForObject(ANY_TASK_LEFT, Boolean.class, purge.getProjectId()));
+    purge.recordChunk(tasks, comments, finished, OffsetDateTime.now());
+    // Nothing deletable yet (the rest is locked elsewhere): wait for the next poll instead of spinning.
+    return finished || !taskIds.isEmpty();
+  }
+
+  private int deleteByIds(String sql, List<UUID> ids) {
+    return jdbc.update(con -> {
+      PreparedStatement ps = con.prepareStatement(sql);
+      ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+      return ps;
+    });
+  }
+}
@@ -2,18 +2,26 @@ package com.taskmgr.task.web;
 
 import com.taskmgr.task.model.CommentEntity;
 import com.taskmgr.task.model.CommentRepository;
+import com.taskmgr.task.model.CommentSummary;
+import com.taskmgr.task.model.ProjectPurgeEntity;
+import com.taskmgr.task.model.ProjectPurgeRepository;
+import com.taskmgr.task.model.ProjectStatusCount;
 import com.taskmgr.task.model.TaskEntity;
 import com.taskmgr.task.model.TaskRepository;
 import com.taskmgr.task.model.TaskStatus;
+import com.taskmgr.task.model.TaskSummary;
 import com.taskmgr.task.notifications.NotificationClient;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -32,11 +40,18 @@ public class TaskController {
   private final TaskRepository tasks;
   private final CommentRepository comments;
   private final NotificationClient notifications;
+  private final ProjectPurgeRepository purges;
 
-  public TaskController(TaskRepository tasks, CommentRepository comments, NotificationClient notifications) {
+  public TaskController(
+      TaskRepository tasks,
+      CommentRepository comments,
+      NotificationClient notifications,
+      ProjectPurgeRepository purges
+  ) {
     this.tasks = tasks;
     this.comments = comments;
     this.notifications = notifications;
+    this.purges = purges;
   }
 
   public record CreateTaskRequest(
@@ -63,6 +78,17 @@ public class TaskController {
 
   public record CommentView(String id, String taskId, String authorUserId, String body, String createdAt) {}
 
+  public record PurgeView(
+      String projectId,
+      String status,
+      long tasksDeleted,
+      long commentsDeleted,
+      String requestedAt,
+      String completedAt
+  ) {}
+
+  public record ProjectTaskStats(String projectId, long total, long todo, long inProgress, long done) {}
+
   private boolean isRoot(String raw) {
     return raw != null && raw.equalsIgnoreCase("true");
   }
@@ -123,12 +149,45 @@ public class TaskController {
     return toView(task);
   }
 
+  @Transactional(readOnly = true)
   @GetMapping("/projects/{projectId}/tasks")
   public List<TaskView> listTasks(@RequestHeader("X-User-Id") String userId, @PathVariable String projectId) {
     UUID pid = UUID.fromString(projectId);
-    return tasks.findByProjectIdOrderByCreatedAtDesc(pid).stream().map(this::toView).toList();
+    return tasks.findSummariesByProjectId(pid).stream().map(this::toView).toList();
   }
 
+  /** Status counts for many projects from one GROUP BY; projects without tasks report zeros. */
+  @GetMapping("/tasks/stats")
+  public List<ProjectTaskStats> taskStats(
+      @RequestHeader("X-User-Id") String userId,
+      @RequestParam(name = "projectId") List<String> projectIds
+  ) {
+    if (projectIds.size() > 500) {
+      throw new WebException(HttpStatus.BAD_REQUEST, "At most 500 projectId values");
+    }
+
+    Map<UUID, long[]> counts = new LinkedHashMap<>();
+    for (String raw : projectIds) {
+      counts.putIfAbsent(UUID.fromString(raw), new long[TaskStatus.values().length]);
+    }
+    if (!counts.isEmpty()) {
+      for (ProjectStatusCount row : tasks.countByProjectAndStatus(counts.keySet())) {
+        counts.get(row.getProjectId())[row.getStatus().ordinal()] += row.getCount();
+      }
+    }
+
+    return counts.entrySet().stream()
+        .map(e -> {
+          long[] c = e.getValue();
+          long todo = c[TaskStatus.TODO.ordinal()];
+          long inProgress = c[TaskStatus.IN_PROGRESS.ordinal()];
+          long done = c[TaskStatus.DONE.ordinal()];
+          return new ProjectTaskStats(e.getKey().toString(), todo + inProgress + done, todo, inProgress, done);
+        })
+        .toList();
+  }
+
+  @Transactional(readOnly = true)
   @GetMapping("/tasks")
   public List<TaskView> listTasksByAssignee(
       @RequestHeader("X-User-Id") String userId,
@@ -145,7 +204,7 @@ public class TaskController {
       throw new WebException(HttpStatus.FORBIDDEN, "Forbidden");
     }
 
-    return tasks.findByAssignedToUserIdOrderByCreatedAtDesc(targetAssignee)
+    return tasks.findSummariesByAssignee(targetAssignee)
         .stream()
         .map(this::toView)
         .toList();
@@ -230,12 +289,13 @@ public class TaskController {
     return new CommentView(c.getId().toString(), c.getTaskId().toString(), c.getAuthorUserId().toString(), c.getBody(), c.getCreatedAt().toString());
   }
 
+  @Transactional(readOnly = true)
   @GetMapping("/tasks/{taskId}/comments")
   public List<CommentView> listComments(@RequestHeader("X-User-Id") String userId, @PathVariable String taskId) {
     UUID tid = UUID.fromString(taskId);
-    return comments.findByTaskIdOrderByCreatedAtAsc(tid)
+    return comments.findSummariesByTaskId(tid)
         .stream()
-        .map(c -> new CommentView(c.getId().toString(), c.getTaskId().toString(), c.getAuthorUserId().toString(), c.getBody(), c.getCreatedAt().toString()))
+        .map(c -> new CommentView(c.id().toString(), c.taskId().toString(), c.authorUserId().toString(), c.body(), c.createdAt().toString()))
         .toList();
   }
 
@@ -255,20 +315,30 @@ public class TaskController {
     tasks.delete(task);
   }
 
-  @DeleteMapping("/projects/{projectId}/tasks")
-  @ResponseStatus(HttpStatus.NO_CONTENT)
-  public void deleteTasksForProject(
+  /**
+   * Queues the project's tasks and comments for deletion and returns at once; ProjectPurgeWorker
+   * does the work in chunks. Safe to repeat. Only project-service calls this, once the project is
+   * gone: {@code /internal/**} has no gateway route, so clients can't reach it.
+   */
+  @Transactional
+  @DeleteMapping("/internal/projects/{projectId}/tasks")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public PurgeView deleteTasksForProject(
       @RequestHeader("X-User-Id") String userId,
       @RequestHeader(value = "X-User-Root", required = false) String root,
       @PathVariable String projectId
   ) {
     forbidIfRoot(root);
     UUID pid = UUID.fromString(projectId);
-    List<TaskEntity> projectTasks = tasks.findByProjectIdOrderByCreatedAtDesc(pid);
-    for (TaskEntity t : projectTasks) {
-      comments.deleteByTaskId(t.getId());
-      tasks.delete(t);
-    }
+    purges.enqueue(pid);
+    return purges.findById(pid).map(this::toView).orElseThrow();
+  }
+
+  @GetMapping("/internal/projects/{projectId}/tasks/purge")
+  public PurgeView purgeStatus(@RequestHeader("X-User-Id") String userId, @PathVariable String projectId) {
+    return purges.findById(UUID.fromString(projectId))
+        .map(this::toView)
+        .orElseThrow(() -> new WebException(HttpStatus.NOT_FOUND, "No purge for project"));
   }
 
   @DeleteMapping("/tasks/{taskId}/comments/{commentId}")
@@ -293,6 +363,29 @@ public class TaskController {
     comments.delete(c);
   }
 
+  private PurgeView toView(ProjectPurgeEntity purge) {
+    return new PurgeView(
+        purge.getProjectId().toString(),
+        purge.getStatus().name(),
+        purge.getTasksDeleted(),
+        purge.getCommentsDeleted(),
+        purge.getRequestedAt().toString(),
+        purge.getCompletedAt() == null ? null : purge.getCompletedAt().toString()
+    );
+  }
+
+  private TaskView toView(TaskSummary task) {
+    return new TaskView(
+        task.id().toString(),
+        task.projectId().toString(),
+        task.title(),
+        task.description(),
+        task.status().name(),
+        task.deadline() == null ? null : task.deadline().toString(),
+        task.assignedToUserId() == null ? null : task.assignedToUserId().toString()
+    );
+  }
+
   private TaskView toView(TaskEntity task) {
     return new TaskView(
         task.getId().toString(),
@@ -0,0 +1,2 @@
+-- Per-project status counts (GET /tasks/stats) as an index-only scan.
+CREATE INDEX IF NOT EXISTS idx_tasks_project_status ON tasks(project_id, status);
@@ -0,0 +1,12 @@
+-- Durable purge jobs for deleted projects, processed in bounded chunks by ProjectPurgeWorker.
+CREATE TABLE IF NOT EXISTS project_purges (
+  project_id UUID PRIMARY KEY,
+  status TEXT NOT NULL,
+  tasks_deleted BIGINT NOT NULL DEFAULT 0,
+  comments_deleted BIGINT NOT NULL DEFAULT 0,
+  requested_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  completed_at TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS idx_project_purges_pending ON project_purges(requested_at) WHERE status = 'PENDING';